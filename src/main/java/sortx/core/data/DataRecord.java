@@ -4,7 +4,12 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class DataRecord {
-    private final Map<String, Object> values = new LinkedHashMap<>();
+    private final Map<String, Object> values;
+
+    public DataRecord() { this(new LinkedHashMap<>()); }
+
+    /** Registro apoiado em outro mapa (ex.: visão de uma linha de um {@link DataSet} colunar). */
+    protected DataRecord(Map<String, Object> values) { this.values = values; }
 
     public void put(String key, Object value) { values.put(key, value); }
     public Object get(String key) { return values.get(key); }
@@ -1,27 +1,269 @@
 package sortx.core.data;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import sortx.core.data.column.Column;
+import sortx.core.data.column.StringColumn;
+import sortx.core.rules.ColumnType;
 
+import java.util.*;
+
+/**
+ * Tabela colunar: um esquema compartilhado (cabeçalhos) e uma {@link Column} por cabeçalho, com
+ * valores em arrays primitivos. {@link #getRows()} expõe cada linha como um {@link DataRecord}
+ * leve (visão), para que o código baseado em registros continue funcionando.
+ */
 public class DataSet {
+    private static final ColumnType[] WIDENING = { ColumnType.NUMBER, ColumnType.DATE, ColumnType.BOOLEAN, ColumnType.STRING };
+
     private final List<String> headers = new ArrayList<>();
-    private final List<DataRecord> rows = new ArrayList<>();
+    private final List<Column> columns = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final List<DataRecord> rows = new RowList();
+    private int size;
 
     public List<String> getHeaders() { return headers; }
     public List<DataRecord> getRows() { return rows; }
 
     public void addHeader(String h) { headers.add(h); }
-    public void addRow(DataRecord r) { rows.add(r); }
 
-    public boolean isEmpty() { return rows.isEmpty(); }
+    public void addRow(DataRecord r) {
+        syncSchema();
+        for (int c = 0; c < headers.size(); c++) {
+            Object v = r.get(headers.get(c));
+            append(c, size, v == null ? null : v.toString());
+        }
+        size++;
+    }
+
+    /** Anexa uma linha já na ordem dos cabeçalhos (sem criar um {@link DataRecord}). */
+    public void addRow(String[] values) {
+        syncSchema();
+        for (int c = 0; c < headers.size(); c++) append(c, size, c < values.length ? values[c] : null);
+        size++;
+    }
+
+    /**
+     * Anexa as linhas de outro DataSet com o mesmo esquema, coluna a coluna (usado para costurar
+     * partes lidas em paralelo). As colunas de {@code other} podem ser reaproveitadas: ele não deve
+     * ser usado depois.
+     */
+    public void addAll(DataSet other) {
+        syncSchema();
+        other.syncSchema();
+        if (!headers.equals(other.headers)) throw new IllegalArgumentException("Esquemas diferentes: " + headers + " != " + other.headers);
+        for (int c = 0; c < columns.size(); c++) {
+            Column src = other.columns.get(c);
+            if (size == 0) { columns.set(c, src); continue; }
+            if (columns.get(c).appendAll(src)) continue;
+            for (int r = 0; r < other.size; r++) append(c, size + r, src.text(r));
+        }
+        size += other.size;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public int size() { return size; }
 
     public List<DataRecord> snapshot() { return new ArrayList<>(rows); }
 
     public void replaceAll(List<DataRecord> sorted) {
-        rows.clear();
-        rows.addAll(sorted);
+        int[] order = permutationOf(sorted);
+        if (order != null) {
+            permute(order);
+            return;
+        }
+        List<String[]> copy = new ArrayList<>(sorted.size());
+        for (DataRecord r : sorted) {
+            String[] values = new String[headers.size()];
+            for (int c = 0; c < values.length; c++) {
+                Object v = r.get(headers.get(c));
+                values[c] = v == null ? null : v.toString();
+            }
+            copy.add(values);
+        }
+        columns.clear();
+        size = 0;
+        for (String[] values : copy) addRow(values);
+    }
+
+    /** Reordena todas as colunas: a nova linha {@code i} passa a ser a antiga {@code order[i]}. */
+    public void permute(int[] order) {
+        if (order.length != size) throw new IllegalArgumentException("Permutação com tamanho " + order.length + " != " + size);
+        for (Column c : columns) c.permute(order);
+    }
+
+    /**
+     * Visão somente leitura das linhas na ordem dada (posição {@code i} = linha {@code order[i]}),
+     * sem mover dados; várias ordens do mesmo DataSet podem coexistir. Válida enquanto o DataSet
+     * não for reordenado.
+     */
+    public List<DataRecord> view(int[] order) {
+        if (order.length != size) throw new IllegalArgumentException("Permutação com tamanho " + order.length + " != " + size);
+        return new OrderedView(order);
     }
 
     public List<String> immutableHeaders() { return Collections.unmodifiableList(headers); }
+
+    public int columnIndex(String header) {
+        syncSchema();
+        Integer i = positions.get(header);
+        return i == null ? -1 : i;
+    }
+
+    public Column column(int index) {
+        syncSchema();
+        return columns.get(index);
+    }
+
+    public Column column(String header) {
+        int i = columnIndex(header);
+        return i < 0 ? null : columns.get(i);
+    }
+
+    public Object get(int row, String header) {
+        Column c = column(header);
+        return c == null ? null : c.get(row);
+    }
+
+    public void set(int row, String header, Object value) {
+        int c = columnIndex(header);
+        if (c < 0) {
+            addHeader(header);
+            c = columnIndex(header);
+        }
+        String raw = value == null ? null : value.toString();
+        Column col = columns.get(c);
+        if (!col.set(row, raw)) columns.set(c, widen(col, row, raw));
+    }
+
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Column c : columns) bytes += c.estimatedBytes();
+        return bytes;
+    }
+
+    private void syncSchema() {
+        if (columns.size() == headers.size()) return;
+        while (columns.size() < headers.size()) {
+            Column c = Column.empty(WIDENING[0]);
+            for (int r = 0; r < size; r++) c.append("");
+            columns.add(c);
+        }
+        positions.clear();
+        for (int i = 0; i < headers.size(); i++) positions.putIfAbsent(headers.get(i), i);
+    }
+
+    private void append(int c, int row, String raw) {
+        Column col = columns.get(c);
+        if (!col.append(raw)) columns.set(c, widen(col, row, raw));
+    }
+
+    // Promove a coluna para o próximo tipo capaz de representar todos os valores atuais + o novo
+    private Column widen(Column current, int row, String raw) {
+        int start = Arrays.asList(WIDENING).indexOf(current.type()) + 1;
+        for (int t = start; t < WIDENING.length; t++) {
+            Column candidate = Column.empty(WIDENING[t]);
+            if (copyInto(current, candidate, row, raw)) return candidate;
+        }
+        Column fallback = new StringColumn();
+        copyInto(current, fallback, row, raw);
+        return fallback;
+    }
+
+    private static boolean copyInto(Column from, Column to, int row, String raw) {
+        int n = Math.max(from.size(), row + 1);
+        for (int r = 0; r < n; r++) {
+            String v = r == row ? raw : from.text(r);
+            if (!to.append(v)) return false;
+        }
+        return true;
+    }
+
+    private int[] permutationOf(List<DataRecord> sorted) {
+        if (sorted.size() != size) return null;
+        int[] order = new int[size];
+        BitSet seen = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (!(sorted.get(i).asMap() instanceof RowMap m) || m.owner() != this || seen.get(m.row)) return null;
+            seen.set(m.row);
+            order[i] = m.row;
+        }
+        return order;
+    }
+
+    private class RowList extends AbstractList<DataRecord> implements RandomAccess {
+        @Override
+        public DataRecord get(int index) {
+            Objects.checkIndex(index, size);
+            return new DataRecord(new RowMap(index));
+        }
+
+        @Override
+        public int size() { return size; }
+
+        @Override
+        public boolean add(DataRecord r) {
+            addRow(r);
+            return true;
+        }
+    }
+
+    private class OrderedView extends AbstractList<DataRecord> implements RandomAccess {
+        private final int[] order;
+
+        OrderedView(int[] order) { this.order = order; }
+
+        @Override
+        public DataRecord get(int index) { return rows.get(order[index]); }
+
+        @Override
+        public int size() { return order.length; }
+    }
+
+    // Visão de uma linha; válida até a próxima reordenação do DataSet
+    private class RowMap extends AbstractMap<String, Object> {
+        private final int row;
+
+        RowMap(int row) { this.row = row; }
+
+        DataSet owner() { return DataSet.this; }
+
+        @Override
+        public Object get(Object key) {
+            Integer c = positions.get(key);
+            return c == null ? null : columns.get(c).get(row);
+        }
+
+        @Override
+        public boolean containsKey(Object key) { return positions.containsKey(key); }
+
+        @Override
+        public Object put(String key, Object value) {
+            Object old = get(key);
+            DataSet.this.set(row, key, value);
+            return old;
+        }
+
+        @Override
+        public int size() { return headers.size(); }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<String> it = headers.iterator();
+                    return new Iterator<>() {
+                        public boolean hasNext() { return it.hasNext(); }
+                        public Entry<String, Object> next() {
+                            String h = it.next();
+                            return new SimpleImmutableEntry<>(h, RowMap.this.get(h));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() { return headers.size(); }
+            };
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package sortx.core.data;
+
+import sortx.core.data.parser.CsvLine;
+
+import java.util.*;
+
+/**
+ * Registro sobre os bytes brutos (UTF-8) de uma linha CSV: guarda só a fatia da linha e, no
+ * primeiro acesso a um campo, localiza os limites até ele e decodifica apenas esse campo, que fica
+ * em cache. Em arquivos largos a ordenação toca só as colunas das regras, sem uma String por campo.
+ * Somente leitura e não thread-safe; os bytes não podem mudar enquanto o registro estiver em uso.
+ */
+public class LazyDataRecord extends DataRecord {
+    private final Fields fields;
+
+    public LazyDataRecord(Schema schema, byte[] line) { this(schema, line, 0, line.length); }
+
+    public LazyDataRecord(Schema schema, byte[] bytes, int offset, int length) {
+        this(new Fields(schema, bytes, offset, offset + length));
+    }
+
+    private LazyDataRecord(Fields fields) {
+        super(fields);
+        this.fields = fields;
+    }
+
+    /** Campo na posição {@code index} da linha, ou {@code null} se a linha tiver menos campos. */
+    public String field(int index) { return fields.field(index); }
+
+    /** Quantidade de campos da linha (percorre a linha inteira na primeira chamada). */
+    public int fieldCount() {
+        fields.locate(Integer.MAX_VALUE);
+        return fields.known;
+    }
+
+    /** Todos os campos, na ordem da linha (como {@link CsvLine#split}). */
+    public String[] values() {
+        String[] out = new String[fieldCount()];
+        for (int i = 0; i < out.length; i++) out[i] = field(i);
+        return out;
+    }
+
+    /** Cabeçalhos e suas posições, compartilhados por todos os registros de um mesmo arquivo. */
+    public static final class Schema {
+        private final List<String> headers;
+        private final Map<String, Integer> positions = new HashMap<>();
+
+        public Schema(List<String> headers) {
+            this.headers = List.copyOf(headers);
+            for (int i = 0; i < this.headers.size(); i++) positions.putIfAbsent(this.headers.get(i), i);
+        }
+
+        public List<String> headers() { return headers; }
+
+        public int indexOf(String header) {
+            Integer i = positions.get(header);
+            return i == null ? -1 : i;
+        }
+    }
+
+    private static final class Fields extends AbstractMap<String, Object> {
+        private final Schema schema;
+        private final byte[] bytes;
+        private final int from;
+        private final int to;
+        private int[] ends = new int[0]; // ends[f]: delimitador (ou fim) que fecha o campo f
+        private int known;               // campos com limites já localizados
+        private String[] cache;
+
+        Fields(Schema schema, byte[] bytes, int from, int to) {
+            Objects.checkFromToIndex(from, to, bytes.length);
+            this.schema = schema;
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+        }
+
+        String field(int f) {
+            if (f < 0 || !locate(f)) return null;
+            if (cache == null) cache = new String[Math.max(f + 1, schema.headers.size())];
+            else if (f >= cache.length) cache = Arrays.copyOf(cache, f + 1);
+            String v = cache[f];
+            if (v == null) cache[f] = v = CsvLine.field(bytes, start(f), ends[f]);
+            return v;
+        }
+
+        // Estende os limites conhecidos até o campo f; false se a linha acabar antes
+        boolean locate(int f) {
+            while (known <= f) {
+                if (known > 0 && ends[known - 1] >= to) return false;
+                if (known == ends.length) ends = Arrays.copyOf(ends, Math.max(8, known * 2));
+                ends[known] = CsvLine.fieldEnd(bytes, start(known), to);
+                known++;
+            }
+            return true;
+        }
+
+        private int start(int f) { return f == 0 ? from : ends[f - 1] + 1; }
+
+        @Override
+        public Object get(Object key) {
+            Integer c = schema.positions.get(key);
+            return c == null ? null : field(c);
+        }
+
+        @Override
+        public boolean containsKey(Object key) { return schema.positions.containsKey(key); }
+
+        @Override
+        public int size() { return schema.headers.size(); }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<String> it = schema.headers.iterator();
+                    return new Iterator<>() {
+                        public boolean hasNext() { return it.hasNext(); }
+                        public Entry<String, Object> next() {
+                            String h = it.next();
+                            return new SimpleImmutableEntry<>(h, Fields.this.get(h));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() { return schema.headers.size(); }
+            };
+        }
+    }
+}
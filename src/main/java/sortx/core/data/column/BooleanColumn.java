@@ -0,0 +1,90 @@
+package sortx.core.data.column;
+
+import sortx.core.rules.ColumnType;
+
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * Coluna booleana em bitset. Guarda o literal usado para verdadeiro e para falso (ex.: "sim"/"nao")
+ * e recusa uma grafia diferente da primeira vista.
+ */
+public class BooleanColumn extends Column {
+    private BitSet values = new BitSet();
+    private String trueLiteral;
+    private String falseLiteral;
+
+    @Override
+    public ColumnType type() { return ColumnType.BOOLEAN; }
+
+    public boolean getBoolean(int row) { return values.get(row); }
+
+    @Override
+    public Object get(int row) {
+        if (missing.get(row)) return "";
+        return values.get(row) ? trueLiteral : falseLiteral;
+    }
+
+    @Override
+    public boolean append(String raw) {
+        if (!store(size, raw)) return false;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean set(int row, String raw) { return store(row, raw); }
+
+    private boolean store(int row, String raw) {
+        if (raw == null) return false;
+        if (raw.isEmpty()) {
+            missing.set(row);
+            values.clear(row);
+            return true;
+        }
+        Boolean b = parse(raw);
+        if (b == null) return false;
+        if (b) {
+            if (trueLiteral == null) trueLiteral = raw;
+            else if (!trueLiteral.equals(raw)) return false;
+        } else {
+            if (falseLiteral == null) falseLiteral = raw;
+            else if (!falseLiteral.equals(raw)) return false;
+        }
+        values.set(row, b);
+        missing.clear(row);
+        return true;
+    }
+
+    public static Boolean parse(String raw) {
+        return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "t", "yes", "y", "1", "sim" -> true;
+            case "false", "f", "no", "n", "0", "nao", "não" -> false;
+            default -> null;
+        };
+    }
+
+    @Override
+    public boolean appendAll(Column other) {
+        if (!(other instanceof BooleanColumn o)) return false;
+        if (trueLiteral != null && o.trueLiteral != null && !trueLiteral.equals(o.trueLiteral)) return false;
+        if (falseLiteral != null && o.falseLiteral != null && !falseLiteral.equals(o.falseLiteral)) return false;
+        if (trueLiteral == null) trueLiteral = o.trueLiteral;
+        if (falseLiteral == null) falseLiteral = o.falseLiteral;
+        appendBits(values, o.values, size);
+        appendBits(missing, o.missing, size);
+        size += o.size;
+        return true;
+    }
+
+    @Override
+    public void permute(int[] order) {
+        values = permute(values, order);
+        BitSet m = permute(missing, order);
+        missing.clear();
+        missing.or(m);
+    }
+
+    @Override
+    public long estimatedBytes() { return values.size() / 4L; }
+}
@@ -0,0 +1,71 @@
+package sortx.core.data.column;
+
+import sortx.core.rules.ColumnType;
+
+import java.util.BitSet;
+
+/**
+ * Coluna de um {@link sortx.core.data.DataSet} colunar. Cada implementação guarda os valores em
+ * arrays primitivos e devolve em {@link #get(int)} um valor cujo {@code toString()} reproduz
+ * exatamente o texto original da célula; valores que não fazem esse "ida e volta" são recusados
+ * e a coluna é promovida para um tipo mais genérico pelo DataSet.
+ */
+public abstract class Column {
+    protected final BitSet missing = new BitSet();
+    protected int size;
+
+    public int size() { return size; }
+
+    /** Célula vazia no CSV (em colunas tipadas é devolvida como ""). */
+    public boolean isMissing(int row) { return missing.get(row); }
+
+    public abstract ColumnType type();
+
+    public abstract Object get(int row);
+
+    /** Anexa um valor; {@code false} quando o valor não é representável nesta coluna. */
+    public abstract boolean append(String raw);
+
+    /** Substitui um valor; {@code false} quando o valor não é representável nesta coluna. */
+    public abstract boolean set(int row, String raw);
+
+    /** Reordena as linhas: a nova linha {@code i} passa a ser a antiga {@code order[i]}. */
+    public abstract void permute(int[] order);
+
+    /**
+     * Anexa em bloco as linhas de outra coluna; {@code false} quando os tipos/formatos não são
+     * compatíveis (o chamador então anexa célula a célula).
+     */
+    public boolean appendAll(Column other) { return false; }
+
+    public abstract long estimatedBytes();
+
+    /** Texto original da célula. */
+    public String text(int row) {
+        Object v = get(row);
+        return v == null ? null : v.toString();
+    }
+
+    public static Column empty(ColumnType type) {
+        return switch (type) {
+            case NUMBER -> new NumberColumn();
+            case DATE -> new DateColumn();
+            case BOOLEAN -> new BooleanColumn();
+            case STRING -> new DictionaryColumn();
+        };
+    }
+
+    protected static int grow(int capacity, int needed) {
+        return Math.max(needed, Math.max(16, capacity + (capacity >> 1)));
+    }
+
+    protected static void appendBits(BitSet dst, BitSet src, int offset) {
+        for (int i = src.nextSetBit(0); i >= 0; i = src.nextSetBit(i + 1)) dst.set(offset + i);
+    }
+
+    protected static BitSet permute(BitSet bits, int[] order) {
+        BitSet out = new BitSet(order.length);
+        for (int i = 0; i < order.length; i++) if (bits.get(order[i])) out.set(i);
+        return out;
+    }
+}
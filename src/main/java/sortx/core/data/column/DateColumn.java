@@ -0,0 +1,91 @@
+package sortx.core.data.column;
+
+import sortx.core.rules.ColumnType;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Coluna de datas em {@code int[]} (dias desde a época). O formato é fixado pelo primeiro valor
+ * e segue a mesma ordem de tentativa do {@link sortx.core.rules.ComparatorFactory}, de modo que
+ * o dia guardado é sempre o mesmo que o comparador obteria ao parsear o texto.
+ */
+public class DateColumn extends Column {
+    public static final DateTimeFormatter[] FORMATS = new DateTimeFormatter[] {
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy")
+    };
+
+    private int[] days = new int[0];
+    private DateTimeFormatter format;
+
+    @Override
+    public ColumnType type() { return ColumnType.DATE; }
+
+    public int getEpochDay(int row) { return days[row]; }
+
+    @Override
+    public Object get(int row) {
+        if (missing.get(row)) return "";
+        return format.format(LocalDate.ofEpochDay(days[row]));
+    }
+
+    @Override
+    public boolean append(String raw) {
+        if (size + 1 > days.length) days = Arrays.copyOf(days, grow(days.length, size + 1));
+        if (!store(size, raw)) return false;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean set(int row, String raw) { return store(row, raw); }
+
+    private boolean store(int row, String raw) {
+        if (raw == null) return false;
+        if (raw.isEmpty()) {
+            missing.set(row);
+            days[row] = 0;
+            return true;
+        }
+        for (DateTimeFormatter f : FORMATS) {
+            LocalDate d;
+            try { d = LocalDate.parse(raw, f); } catch (Exception e) { continue; }
+            if (format == null) format = f;
+            if (f != format || !f.format(d).equals(raw)) return false;
+            if (d.toEpochDay() != (int) d.toEpochDay()) return false;
+            days[row] = (int) d.toEpochDay();
+            missing.clear(row);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean appendAll(Column other) {
+        if (!(other instanceof DateColumn o)) return false;
+        if (format != null && o.format != null && format != o.format) return false;
+        if (format == null) format = o.format;
+        if (size + o.size > days.length) days = Arrays.copyOf(days, grow(days.length, size + o.size));
+        System.arraycopy(o.days, 0, days, size, o.size);
+        appendBits(missing, o.missing, size);
+        size += o.size;
+        return true;
+    }
+
+    @Override
+    public void permute(int[] order) {
+        int[] d = new int[order.length];
+        for (int i = 0; i < order.length; i++) d[i] = days[order[i]];
+        days = d;
+        BitSet m = permute(missing, order);
+        missing.clear();
+        missing.or(m);
+    }
+
+    @Override
+    public long estimatedBytes() { return days.length * 4L; }
+}
@@ -0,0 +1,155 @@
+package sortx.core.data.column;
+
+import sortx.core.rules.ColumnType;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coluna de texto codificada por dicionário: cada valor distinto é guardado uma vez e as células
+ * viram códigos {@code int} ({@code -1} = {@code null}). É o formato inicial de toda coluna de
+ * texto; a sonda de cardinalidade recusa um valor novo — e o DataSet promove a coluna para
+ * {@link StringColumn} — quando o dicionário passaria de {@code sortx.dictionaryMaxValues}
+ * valores ou, depois das primeiras {@value #PROBE_ROWS} linhas, de
+ * {@code sortx.dictionaryMaxPercent}% das linhas.
+ */
+public class DictionaryColumn extends Column {
+    private static final int MAX_VALUES = Integer.getInteger("sortx.dictionaryMaxValues", 65536);
+    private static final int MAX_PERCENT = Integer.getInteger("sortx.dictionaryMaxPercent", 50);
+    private static final int PROBE_ROWS = 4096;
+    private static final int REFUSED = -2;
+
+    private int[] codes = new int[0];
+    private String[] dictionary = new String[16];
+    private int cardinality;
+    private final Map<String, Integer> index = new HashMap<>();
+
+    // Postos do dicionário pela última colação pedida (ver ranks)
+    private Collator rankedBy;
+    private int[] ranks;
+
+    @Override
+    public ColumnType type() { return ColumnType.STRING; }
+
+    @Override
+    public Object get(int row) { return text(row); }
+
+    @Override
+    public String text(int row) {
+        int c = codes[row];
+        return c < 0 ? null : dictionary[c];
+    }
+
+    /** Código da célula: índice em {@link #value(int)}, ou {@code -1} para {@code null}. */
+    public int code(int row) { return codes[row]; }
+
+    public String value(int code) { return dictionary[code]; }
+
+    /** Valores distintos no dicionário (códigos {@code 0..cardinality-1}). */
+    public int cardinality() { return cardinality; }
+
+    @Override
+    public boolean append(String raw) {
+        int c = codeOf(raw, size + 1);
+        if (c == REFUSED) return false;
+        if (size + 1 > codes.length) codes = Arrays.copyOf(codes, grow(codes.length, size + 1));
+        store(size++, c, raw);
+        return true;
+    }
+
+    @Override
+    public boolean set(int row, String raw) {
+        int c = codeOf(raw, size);
+        if (c == REFUSED) return false;
+        store(row, c, raw);
+        return true;
+    }
+
+    @Override
+    public boolean appendAll(Column other) {
+        if (!(other instanceof DictionaryColumn o)) return false;
+        // Confere o limite antes de inserir: recusar no meio deixaria entradas órfãs no dicionário
+        int added = 0;
+        for (int c = 0; c < o.cardinality; c++) {
+            if (!index.containsKey(o.dictionary[c])) added++;
+        }
+        if (!fits(cardinality + added, size + o.size)) return false;
+        int[] remap = new int[o.cardinality];
+        for (int c = 0; c < o.cardinality; c++) remap[c] = codeOf(o.dictionary[c], size + o.size);
+        if (size + o.size > codes.length) codes = Arrays.copyOf(codes, grow(codes.length, size + o.size));
+        for (int r = 0; r < o.size; r++) {
+            int c = o.codes[r];
+            codes[size + r] = c < 0 ? -1 : remap[c];
+        }
+        appendBits(missing, o.missing, size);
+        size += o.size;
+        return true;
+    }
+
+    @Override
+    public void permute(int[] order) {
+        int[] v = new int[order.length];
+        for (int i = 0; i < order.length; i++) v[i] = codes[order[i]];
+        codes = v;
+        BitSet m = permute(missing, order);
+        missing.clear();
+        missing.or(m);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long bytes = codes.length * 4L + dictionary.length * 4L;
+        for (int c = 0; c < cardinality; c++) bytes += 40 + 48 + dictionary[c].length();
+        return bytes;
+    }
+
+    /**
+     * Posto de cada código sob a colação dada: {@code ranks[a] < ranks[b]} sse
+     * {@code collator.compare(value(a), value(b)) < 0}, e valores que a colação iguala têm o mesmo
+     * posto. Calculado uma vez por colação e reaproveitado enquanto o dicionário não crescer.
+     */
+    public synchronized int[] ranks(Collator collator) {
+        if (ranks != null && ranks.length == cardinality && collator.equals(rankedBy)) return ranks;
+        CollationKey[] keys = new CollationKey[cardinality];
+        Integer[] byKey = new Integer[cardinality];
+        for (int c = 0; c < cardinality; c++) {
+            keys[c] = collator.getCollationKey(dictionary[c]);
+            byKey[c] = c;
+        }
+        Arrays.sort(byKey, (a, b) -> keys[a].compareTo(keys[b]));
+        int[] out = new int[cardinality];
+        for (int i = 0, rank = 0; i < cardinality; i++) {
+            if (i > 0 && keys[byKey[i]].compareTo(keys[byKey[i - 1]]) != 0) rank++;
+            out[byKey[i]] = rank;
+        }
+        rankedBy = (Collator) collator.clone();
+        ranks = out;
+        return out;
+    }
+
+    // Código do valor, criando a entrada se couber no dicionário para uma coluna com 'rows' linhas
+    private int codeOf(String raw, int rows) {
+        if (raw == null) return -1;
+        Integer c = index.get(raw);
+        if (c != null) return c;
+        if (!fits(cardinality + 1, rows)) return REFUSED;
+        if (cardinality == dictionary.length) dictionary = Arrays.copyOf(dictionary, cardinality * 2);
+        dictionary[cardinality] = raw;
+        index.put(raw, cardinality);
+        return cardinality++;
+    }
+
+    // Um dicionário com 'values' valores cabe numa coluna com 'rows' linhas
+    private static boolean fits(int values, int rows) {
+        return values <= MAX_VALUES && (rows <= PROBE_ROWS || values * 100L <= (long) rows * MAX_PERCENT);
+    }
+
+    private void store(int row, int code, String raw) {
+        codes[row] = code;
+        if (raw == null || raw.isEmpty()) missing.set(row); else missing.clear(row);
+    }
+}
@@ -0,0 +1,116 @@
+package sortx.core.data.column;
+
+import sortx.core.rules.ColumnType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Coluna numérica em {@code double[]}. Aceita apenas literais decimais simples (até 15 dígitos)
+ * cuja forma canônica coincide com o texto original; a escala de cada célula é guardada para
+ * devolver {@code 12.50} como {@code 12.50} e não {@code 12.5}.
+ */
+public class NumberColumn extends Column {
+    private static final int MAX_DIGITS = 15;
+    private static final double[] POW10 = new double[MAX_DIGITS + 1];
+    static {
+        double p = 1;
+        for (int i = 0; i <= MAX_DIGITS; i++) { POW10[i] = p; p *= 10; }
+    }
+
+    private double[] values = new double[0];
+    private byte[] scales = new byte[0];
+
+    @Override
+    public ColumnType type() { return ColumnType.NUMBER; }
+
+    public double getDouble(int row) { return values[row]; }
+
+    @Override
+    public Object get(int row) {
+        if (missing.get(row)) return "";
+        int scale = scales[row];
+        long unscaled = Math.round(values[row] * POW10[scale]);
+        return scale == 0 ? Long.valueOf(unscaled) : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public boolean append(String raw) {
+        ensureCapacity(size + 1);
+        if (!store(size, raw)) return false;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean set(int row, String raw) { return store(row, raw); }
+
+    private boolean store(int row, String raw) {
+        if (raw == null) return false;
+        if (raw.isEmpty()) {
+            missing.set(row);
+            values[row] = 0;
+            scales[row] = 0;
+            return true;
+        }
+        int len = raw.length();
+        int i = raw.charAt(0) == '-' ? 1 : 0;
+        int digits = 0, scale = -1;
+        long unscaled = 0;
+        for (; i < len; i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_DIGITS) return false;
+                unscaled = unscaled * 10 + (c - '0');
+                if (scale >= 0) scale++;
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return false;
+            }
+        }
+        if (digits == 0 || scale == 0) return false;
+        if (scale < 0) scale = 0;
+        if (raw.charAt(0) == '-') unscaled = -unscaled;
+        String canonical = scale == 0 ? Long.toString(unscaled) : BigDecimal.valueOf(unscaled, scale).toString();
+        if (!canonical.equals(raw)) return false;
+        values[row] = unscaled / POW10[scale];
+        scales[row] = (byte) scale;
+        missing.clear(row);
+        return true;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= values.length) return;
+        int cap = grow(values.length, needed);
+        values = Arrays.copyOf(values, cap);
+        scales = Arrays.copyOf(scales, cap);
+    }
+
+    @Override
+    public boolean appendAll(Column other) {
+        if (!(other instanceof NumberColumn o)) return false;
+        ensureCapacity(size + o.size);
+        System.arraycopy(o.values, 0, values, size, o.size);
+        System.arraycopy(o.scales, 0, scales, size, o.size);
+        appendBits(missing, o.missing, size);
+        size += o.size;
+        return true;
+    }
+
+    @Override
+    public void permute(int[] order) {
+        double[] v = new double[order.length];
+        byte[] s = new byte[order.length];
+        for (int i = 0; i < order.length; i++) { v[i] = values[order[i]]; s[i] = scales[order[i]]; }
+        values = v;
+        scales = s;
+        BitSet m = permute(missing, order);
+        missing.clear();
+        missing.or(m);
+    }
+
+    @Override
+    public long estimatedBytes() { return values.length * 9L; }
+}
@@ -0,0 +1,61 @@
+package sortx.core.data.column;
+
+import sortx.core.rules.ColumnType;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/** Coluna genérica: guarda o texto de cada célula (aceita qualquer valor, inclusive {@code null}). */
+public class StringColumn extends Column {
+    private String[] values = new String[0];
+
+    @Override
+    public ColumnType type() { return ColumnType.STRING; }
+
+    @Override
+    public Object get(int row) { return values[row]; }
+
+    @Override
+    public String text(int row) { return values[row]; }
+
+    @Override
+    public boolean append(String raw) {
+        if (size + 1 > values.length) values = Arrays.copyOf(values, grow(values.length, size + 1));
+        set(size++, raw);
+        return true;
+    }
+
+    @Override
+    public boolean set(int row, String raw) {
+        values[row] = raw;
+        if (raw == null || raw.isEmpty()) missing.set(row); else missing.clear(row);
+        return true;
+    }
+
+    @Override
+    public boolean appendAll(Column other) {
+        if (!(other instanceof StringColumn o)) return false;
+        if (size + o.size > values.length) values = Arrays.copyOf(values, grow(values.length, size + o.size));
+        System.arraycopy(o.values, 0, values, size, o.size);
+        appendBits(missing, o.missing, size);
+        size += o.size;
+        return true;
+    }
+
+    @Override
+    public void permute(int[] order) {
+        String[] v = new String[order.length];
+        for (int i = 0; i < order.length; i++) v[i] = values[order[i]];
+        values = v;
+        BitSet m = permute(missing, order);
+        missing.clear();
+        missing.or(m);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long bytes = values.length * 4L;
+        for (int i = 0; i < size; i++) if (values[i] != null) bytes += 40 + values[i].length();
+        return bytes;
+    }
+}
@@ -0,0 +1,108 @@
+package sortx.core.data.parser;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Divide um CSV mapeado em memória em faixas que começam sempre no início de um registro,
+ * respeitando campos entre aspas com quebras de linha.
+ *
+ * Em RFC 4180 uma aspa escapada ({@code ""}) alterna o estado duas vezes, então a paridade das
+ * aspas antes de uma posição diz se ela está dentro de um campo entre aspas. Cada faixa nominal
+ * conta suas aspas em paralelo; com o prefixo das paridades cada thread sabe o estado no início da
+ * sua faixa e procura, também em paralelo, a primeira quebra de linha fora de aspas.
+ */
+public final class CsvChunker {
+    /** Tamanho máximo de cada faixa (e de cada janela mapeada). */
+    public static final long MAX_RANGE = 1L << 30;
+    private static final int SCAN_WINDOW = 8 << 20;
+
+    private CsvChunker() { }
+
+    /** Fronteiras {@code [start, ..., end]} de até {@code parts} faixas (ao menos uma por {@link #MAX_RANGE}). */
+    public static long[] split(FileChannel ch, long start, long end, int parts, ExecutorService pool) throws IOException {
+        long len = end - start;
+        if (len <= 0) return new long[] { start, end };
+        int n = (int) Math.max(Math.max(1, parts), (len + MAX_RANGE - 1) / MAX_RANGE);
+        n = (int) Math.min(n, Math.max(1, len / 4096));
+        long step = len / n;
+        long[] nominal = new long[n + 1];
+        for (int i = 0; i < n; i++) nominal[i] = start + i * step;
+        nominal[n] = end;
+
+        List<Callable<Long>> counts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long from = nominal[i], to = nominal[i + 1];
+            counts.add(() -> countQuotes(ch, from, to));
+        }
+        List<Long> quoteCounts = invokeAll(pool, counts);
+
+        List<Callable<Long>> seeks = new ArrayList<>(n - 1);
+        boolean inQuotes = false;
+        for (int i = 1; i < n; i++) {
+            inQuotes ^= (quoteCounts.get(i - 1) & 1L) == 1L;
+            long from = nominal[i];
+            boolean q = inQuotes;
+            seeks.add(() -> recordEnd(ch, from, end, q));
+        }
+        List<Long> starts = invokeAll(pool, seeks);
+
+        List<Long> bounds = new ArrayList<>(n + 1);
+        bounds.add(start);
+        for (long s : starts) if (s > bounds.get(bounds.size() - 1) && s < end) bounds.add(s);
+        bounds.add(end);
+        long[] out = new long[bounds.size()];
+        for (int i = 0; i < out.length; i++) out[i] = bounds.get(i);
+        return out;
+    }
+
+    /** Posição logo após a primeira quebra de linha fora de aspas a partir de {@code from} (ou {@code end}). */
+    public static long recordEnd(FileChannel ch, long from, long end, boolean inQuotes) throws IOException {
+        long pos = from;
+        while (pos < end) {
+            int len = (int) Math.min(SCAN_WINDOW, end - pos);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+            for (int i = 0; i < len; i++) {
+                byte b = buf.get(i);
+                if (b == '"') inQuotes = !inQuotes;
+                else if (b == '\n' && !inQuotes) return pos + i + 1;
+            }
+            pos += len;
+        }
+        return end;
+    }
+
+    private static long countQuotes(FileChannel ch, long from, long to) throws IOException {
+        long quotes = 0;
+        for (long pos = from; pos < to; ) {
+            int len = (int) Math.min(MAX_RANGE, to - pos);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+            for (int i = 0; i < len; i++) if (buf.get(i) == '"') quotes++;
+            pos += len;
+        }
+        return quotes;
+    }
+
+    /** Executa as tarefas e devolve os resultados na ordem de submissão, propagando a primeira falha. */
+    public static <T> List<T> invokeAll(ExecutorService pool, List<? extends Callable<T>> tasks) throws IOException {
+        List<T> out = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> f : pool.invokeAll(tasks)) out.add(f.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException(e.getCause());
+        }
+        return out;
+    }
+}
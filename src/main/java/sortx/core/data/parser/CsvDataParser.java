@@ -3,14 +3,35 @@ package sortx.core.data.parser;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
-import sortx.core.data.DataRecord;
 import sortx.core.data.DataSet;
 
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CsvDataParser implements DataParser {
+    private static final int PARSE_THREADS =
+            Integer.getInteger("sortx.parseThreads", Runtime.getRuntime().availableProcessors());
+    private static final long PARALLEL_MIN_BYTES =
+            Long.getLong("sortx.parallelParseMinBytes", 16L * 1024 * 1024);
+
+    private static final CSVFormat RECORDS = CSVFormat.DEFAULT
+            .builder()
+            .setIgnoreSurroundingSpaces(true)
+            .setTrim(true)
+            .build();
+
     @Override
     public boolean supports(String filename) {
         String lower = filename.toLowerCase();
@@ -19,6 +40,7 @@ public class CsvDataParser implements DataParser {
 
     @Override
     public DataSet parse(File file) throws Exception {
+        if (PARSE_THREADS > 1 && file.length() >= PARALLEL_MIN_BYTES) return parseParallel(file, PARSE_THREADS);
         DataSet ds = new DataSet();
         try (FileReader reader = new FileReader(file, StandardCharsets.UTF_8);
              CSVParser parser = CSVFormat.DEFAULT
@@ -30,19 +52,80 @@ public class CsvDataParser implements DataParser {
                      .build()
                      .parse(reader)) {
 
-            ds.getHeaders().addAll(parser.getHeaderMap().keySet());
+            for (String h : parser.getHeaderMap().keySet()) ds.addHeader(h);
 
+            String[] values = new String[ds.getHeaders().size()];
             for (CSVRecord rec : parser) {
-                DataRecord dr = new DataRecord();
-                for (String h : ds.getHeaders()) {
-                    dr.put(h, rec.get(h));
-                }
-                ds.addRow(dr);
+                for (int i = 0; i < values.length; i++) values[i] = rec.get(i);
+                ds.addRow(values);
             }
         }
         return ds;
     }
 
+    /**
+     * Mapeia o arquivo em memória, divide-o em faixas alinhadas a registros ({@link CsvChunker}),
+     * parseia cada faixa em um DataSet próprio em paralelo e costura as partes na ordem original.
+     */
+    public DataSet parseParallel(File file, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            long headerEnd = CsvChunker.recordEnd(ch, 0, size, false);
+            DataSet ds = new DataSet();
+            try (CSVParser header = RECORDS.builder().setHeader().build()
+                    .parse(reader(ch, 0, headerEnd))) {
+                for (String h : header.getHeaderMap().keySet()) ds.addHeader(h);
+            }
+
+            long[] bounds = CsvChunker.split(ch, headerEnd, size, threads * 4, pool);
+            List<Callable<DataSet>> tasks = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i], to = bounds[i + 1];
+                tasks.add(() -> parseRange(ch, from, to, ds.getHeaders()));
+            }
+            for (DataSet part : CsvChunker.invokeAll(pool, tasks)) ds.addAll(part);
+            return ds;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static DataSet parseRange(FileChannel ch, long from, long to, List<String> headers) throws IOException {
+        DataSet part = new DataSet();
+        for (String h : headers) part.addHeader(h);
+        String[] values = new String[headers.size()];
+        try (CSVParser parser = RECORDS.parse(reader(ch, from, to))) {
+            for (CSVRecord rec : parser) {
+                for (int i = 0; i < values.length; i++) values[i] = rec.get(i);
+                part.addRow(values);
+            }
+        }
+        return part;
+    }
+
+    private static InputStreamReader reader(FileChannel ch, long from, long to) throws IOException {
+        ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        return new InputStreamReader(new ByteBufferInputStream(buf), StandardCharsets.UTF_8);
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        ByteBufferInputStream(ByteBuffer buf) { this.buf = buf; }
+
+        @Override
+        public int read() { return buf.hasRemaining() ? buf.get() & 0xFF : -1; }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buf.hasRemaining()) return -1;
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+    }
+
     @Override
     public String name() { return "CSV"; }
 }
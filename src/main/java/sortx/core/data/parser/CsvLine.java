@@ -0,0 +1,94 @@
+package sortx.core.data.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divisor leve de um único registro CSV, equivalente ao {@code CSVFormat.DEFAULT} com
+ * {@code ignoreSurroundingSpaces} e {@code trim} usado pelo {@link CsvDataParser}, sem construir
+ * um {@code CSVParser} por linha.
+ */
+public final class CsvLine {
+    private static final char DELIM = ',';
+    private static final char QUOTE = '"';
+
+    private CsvLine() { }
+
+    public static String[] split(CharSequence record) {
+        List<String> out = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        int n = record.length();
+        int i = 0;
+        while (true) {
+            sb.setLength(0);
+            i = field(record, i, n, sb);
+            out.add(sb.toString().trim());
+            if (i >= n) break;
+            i++; // delimitador
+        }
+        return out.toArray(new String[0]);
+    }
+
+    /**
+     * Fim (posição do delimitador, ou {@code to}) do campo que começa em {@code i} num registro em
+     * bytes UTF-8, sem decodificá-lo. Delimitador e aspas são ASCII e nunca aparecem dentro de um
+     * caractere multibyte, então os limites coincidem com os de {@link #split}.
+     */
+    public static int fieldEnd(byte[] record, int i, int to) {
+        int w;
+        while (i < to && record[i] != DELIM && (w = whitespaceLength(record, i, to)) > 0) i += w;
+        if (i < to && record[i] == QUOTE) {
+            i++;
+            while (i < to) {
+                if (record[i++] == QUOTE) {
+                    if (i < to && record[i] == QUOTE) i++;
+                    else break;
+                }
+            }
+        }
+        while (i < to && record[i] != DELIM) i++;
+        return i;
+    }
+
+    /** Valor do campo em {@code record[from, to)} (sem o delimitador), como {@link #split} o devolveria. */
+    public static String field(byte[] record, int from, int to) {
+        String raw = new String(record, from, to - from, StandardCharsets.UTF_8);
+        if (raw.isEmpty() || raw.charAt(0) != QUOTE && !Character.isWhitespace(raw.charAt(0))) return raw.trim();
+        StringBuilder sb = new StringBuilder(raw.length());
+        field(raw, 0, raw.length(), sb);
+        return sb.toString().trim();
+    }
+
+    // Lê para sb o campo que começa em i; devolve a posição do delimitador (ou n)
+    private static int field(CharSequence record, int i, int n, StringBuilder sb) {
+        while (i < n && record.charAt(i) != DELIM && Character.isWhitespace(record.charAt(i))) i++;
+        if (i < n && record.charAt(i) == QUOTE) {
+            i++;
+            while (i < n) {
+                char c = record.charAt(i++);
+                if (c == QUOTE) {
+                    if (i < n && record.charAt(i) == QUOTE) { sb.append(QUOTE); i++; }
+                    else break;
+                } else {
+                    sb.append(c);
+                }
+            }
+            while (i < n && record.charAt(i) != DELIM) i++;
+        } else {
+            while (i < n && record.charAt(i) != DELIM) sb.append(record.charAt(i++));
+        }
+        return i;
+    }
+
+    // Bytes do caractere em i se ele for espaço em branco (Character.isWhitespace), senão 0
+    private static int whitespaceLength(byte[] b, int i, int to) {
+        int c = b[i] & 0xFF;
+        if (c < 0x80) return Character.isWhitespace(c) ? 1 : 0;
+        int n = c >= 0xF0 ? 4 : c >= 0xE0 ? 3 : c >= 0xC0 ? 2 : 1;
+        if (n == 1 || i + n > to) return 0;
+        int cp = c & (0xFF >> (n + 1));
+        for (int k = 1; k < n; k++) cp = cp << 6 | (b[i + k] & 0x3F);
+        return Character.isWhitespace(cp) ? n : 0;
+    }
+}
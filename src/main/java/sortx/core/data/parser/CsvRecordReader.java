@@ -0,0 +1,70 @@
+package sortx.core.data.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Lê registros CSV brutos (bytes, sem o terminador de linha) de um fluxo, com leituras em bloco e
+ * controle de aspas: uma quebra de linha dentro de um campo entre aspas não encerra o registro.
+ */
+public final class CsvRecordReader implements Closeable {
+    private final InputStream in;
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private String newline;
+
+    public CsvRecordReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buf = new byte[Math.max(4096, bufferSize)];
+    }
+
+    /** Próximo registro (pode ser vazio, para linhas em branco) ou {@code null} no fim do fluxo. */
+    public byte[] next() throws IOException {
+        boolean inQuotes = false;
+        int scan = pos;
+        while (true) {
+            for (; scan < limit; scan++) {
+                byte b = buf[scan];
+                if (b == '"') inQuotes = !inQuotes;
+                else if (b == '\n' && !inQuotes) {
+                    int end = scan;
+                    boolean cr = end > pos && buf[end - 1] == '\r';
+                    if (cr) end--;
+                    if (newline == null) newline = cr ? "\r\n" : "\n";
+                    byte[] rec = Arrays.copyOfRange(buf, pos, end);
+                    pos = scan + 1;
+                    return rec;
+                }
+            }
+            if (eof) {
+                if (pos >= limit) return null;
+                byte[] rec = Arrays.copyOfRange(buf, pos, limit);
+                pos = limit;
+                return rec;
+            }
+            scan -= pos;
+            fill();
+        }
+    }
+
+    /** Terminador de linha do primeiro registro lido ({@code "\n"} se ainda não houver). */
+    public String newline() { return newline == null ? "\n" : newline; }
+
+    private void fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) eof = true; else limit += n;
+    }
+
+    @Override
+    public void close() throws IOException { in.close(); }
+}
@@ -0,0 +1,125 @@
+package sortx.core.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams com E/S em segundo plano (threads virtuais) para o merge externo: leitura antecipada
+ * por arquivo e escrita com buffer duplo, de modo que a thread do merge só compara e copia
+ * enquanto o disco trabalha em paralelo.
+ */
+public final class AsyncStreams {
+    static final ExecutorService IO = Executors.newVirtualThreadPerTaskExecutor();
+
+    private AsyncStreams() { }
+
+    /** Lê {@code in} em blocos de {@code bufferSize}, sempre um bloco à frente do consumo. */
+    public static InputStream readAhead(InputStream in, int bufferSize) {
+        return new ReadAhead(in, bufferSize);
+    }
+
+    /** Acumula em um buffer enquanto o anterior é gravado em {@code out} em segundo plano. */
+    public static OutputStream doubleBuffered(OutputStream out, int bufferSize) {
+        return new DoubleBuffered(out, bufferSize);
+    }
+
+    private static final class ReadAhead extends PrefetchInputStream {
+        private final InputStream in;
+
+        ReadAhead(InputStream in, int bufferSize) {
+            super(bufferSize);
+            this.in = in;
+        }
+
+        @Override
+        protected int fill(int slot) throws IOException {
+            byte[] buf = buffer(slot, 0);
+            int n = in.readNBytes(buf, 0, buf.length);
+            return n == 0 ? -1 : n;
+        }
+
+        @Override
+        protected void closeSource() throws IOException { in.close(); }
+    }
+
+    private static final class DoubleBuffered extends OutputStream {
+        private final OutputStream out;
+        private byte[] current, spare;
+        private int size;
+        private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+        private boolean closed;
+
+        DoubleBuffered(OutputStream out, int bufferSize) {
+            this.out = out;
+            this.current = new byte[bufferSize];
+            this.spare = new byte[bufferSize];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (size == current.length) handOff();
+            current[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (size == current.length) handOff();
+                int n = Math.min(len, current.length - size);
+                System.arraycopy(b, off, current, size, n);
+                size += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        // Entrega o buffer cheio à gravação em segundo plano e passa a preencher o outro
+        private void handOff() throws IOException {
+            await();
+            if (size == 0) return;
+            byte[] full = current;
+            int n = size;
+            current = spare;
+            spare = full;
+            size = 0;
+            pending = CompletableFuture.runAsync(() -> {
+                try { out.write(full, 0, n); }
+                catch (IOException e) { throw new UncheckedIOException(e); }
+            }, IO);
+        }
+
+        private void await() throws IOException {
+            try {
+                pending.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException u) throw u.getCause();
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            handOff();
+            await();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                flush();
+            } finally {
+                try { pending.join(); } catch (CompletionException ignored) { }
+                out.close();
+            }
+        }
+    }
+}
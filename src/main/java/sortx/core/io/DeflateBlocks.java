@@ -0,0 +1,129 @@
+package sortx.core.io;
+
+import java.io.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressão em blocos para arquivos temporários sequenciais: {@code [bytes originais][bytes
+ * gravados][dados]} por bloco, com Deflate em nível baixo (bloco que não encolhe é gravado cru,
+ * sinalizado por tamanho negativo). Na leitura o bloco seguinte é lido e descomprimido em uma
+ * thread virtual enquanto o atual é consumido ({@link PrefetchInputStream}).
+ */
+final class DeflateBlocks {
+    static final int BLOCK_BYTES = Integer.getInteger("sortx.tempBlockBytes", 256 * 1024);
+
+    private DeflateBlocks() { }
+
+    static final class Output extends OutputStream {
+        private final DataOutputStream out;
+        private final Deflater deflater;
+        private final byte[] block = new byte[BLOCK_BYTES];
+        private final byte[] packed = new byte[BLOCK_BYTES];
+        private int size;
+
+        Output(OutputStream out, int level) {
+            this.out = new DataOutputStream(out);
+            this.deflater = new Deflater(level, true);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (size == block.length) flushBlock();
+            block[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (size == block.length) flushBlock();
+                int n = Math.min(len, block.length - size);
+                System.arraycopy(b, off, block, size, n);
+                size += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (size == 0) return;
+            deflater.reset();
+            deflater.setInput(block, 0, size);
+            deflater.finish();
+            int n = 0;
+            while (!deflater.finished() && n < size) { // não encolheu: grava cru
+                n += deflater.deflate(packed, n, packed.length - n);
+            }
+            out.writeInt(size);
+            if (deflater.finished() && n < size) {
+                out.writeInt(n);
+                out.write(packed, 0, n);
+            } else {
+                out.writeInt(-size);
+                out.write(block, 0, size);
+            }
+            size = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBlock();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBlock();
+                out.close();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    static final class Input extends PrefetchInputStream {
+        private final DataInputStream in;
+        private final Inflater inflater = new Inflater(true);
+
+        Input(InputStream in) {
+            super(BLOCK_BYTES);
+            this.in = new DataInputStream(in);
+        }
+
+        @Override
+        protected int fill(int slot) throws IOException {
+            int raw;
+            try { raw = in.readInt(); } catch (EOFException end) { return -1; }
+            int stored = in.readInt();
+            byte[] dst = buffer(slot, raw);
+            if (stored < 0) {
+                in.readFully(dst, 0, raw);
+                return raw;
+            }
+            byte[] src = new byte[stored];
+            in.readFully(src);
+            inflater.reset();
+            inflater.setInput(src);
+            try {
+                int n = 0;
+                while (n < raw && !inflater.finished()) {
+                    int r = inflater.inflate(dst, n, raw - n);
+                    // Sem saída e pedindo mais entrada (ou dicionário): o bloco acabou antes do esperado
+                    if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                    n += r;
+                }
+                if (n != raw) throw new IOException("Bloco comprimido truncado");
+            } catch (DataFormatException e) {
+                throw new IOException("Bloco comprimido inválido", e);
+            }
+            return raw;
+        }
+
+        @Override
+        protected void closeSource() throws IOException {
+            try { in.close(); } finally { inflater.end(); }
+        }
+    }
+}
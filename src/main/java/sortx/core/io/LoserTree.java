@@ -0,0 +1,70 @@
+package sortx.core.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Árvore de perdedores (torneio) para merge k-vias de runs ordenados. Cada nó interno guarda o
+ * perdedor da disputa naquele ponto; ao consumir o vencedor apenas o caminho da folha até a raiz é
+ * rejogado (log2 k comparações, sem alocar nós por linha). Empates favorecem a fonte de menor
+ * índice, então o merge de runs consecutivos é estável.
+ */
+public final class LoserTree {
+
+    @FunctionalInterface
+    public interface Source {
+        /** Próximo registro da fonte, ou {@code null} quando ela se esgota. */
+        RunRecord next() throws IOException;
+    }
+
+    private final Source[] sources;
+    private final RunRecord[] current;
+    private final int[] tree;
+    private final int k;
+
+    public LoserTree(List<? extends Source> sources) throws IOException {
+        this.k = sources.size();
+        this.sources = sources.toArray(new Source[0]);
+        this.current = new RunRecord[k];
+        this.tree = new int[Math.max(1, k)];
+        for (int i = 0; i < k; i++) current[i] = this.sources[i].next();
+        if (k > 0) tree[0] = build(1);
+    }
+
+    /** Menor registro restante (consumindo-o), ou {@code null} quando todas as fontes acabaram. */
+    public RunRecord poll() throws IOException {
+        if (k == 0) return null;
+        int w = tree[0];
+        RunRecord out = current[w];
+        if (out == null) return null;
+        current[w] = sources[w].next();
+        for (int node = (w + k) >> 1; node > 0; node >>= 1) {
+            if (less(tree[node], w)) {
+                int t = tree[node];
+                tree[node] = w;
+                w = t;
+            }
+        }
+        tree[0] = w;
+        return out;
+    }
+
+    private int build(int node) {
+        if (node >= k) return node - k;
+        int a = build(2 * node);
+        int b = build(2 * node + 1);
+        if (less(a, b)) { tree[node] = b; return a; }
+        tree[node] = a;
+        return b;
+    }
+
+    // Fonte esgotada conta como +infinito
+    private boolean less(int a, int b) {
+        RunRecord x = current[a], y = current[b];
+        if (x == null) return false;
+        if (y == null) return true;
+        int c = Arrays.compareUnsigned(x.key(), y.key());
+        return c < 0 || c == 0 && a < b;
+    }
+}
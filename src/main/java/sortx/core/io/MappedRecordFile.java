@@ -0,0 +1,151 @@
+package sortx.core.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Arquivo de registros de tamanho fixo acessado por janelas {@link MappedByteBuffer}. Os índices
+ * são {@code long} e cada janela guarda um número inteiro de registros (nenhum registro atravessa
+ * duas janelas), então o arquivo pode passar de 2 GB. Leituras e escritas são acessos diretos à
+ * memória, sem chamadas de sistema.
+ *
+ * <p>{@link #close()} desmapeia as janelas na hora (via {@code Unsafe.invokeCleaner}, do módulo
+ * {@code jdk.unsupported}): um mapeamento vivo impede mover ou apagar o arquivo no Windows e
+ * segura o espaço em disco. Como acessar uma janela desmapeada derruba a JVM, o arquivo só pode
+ * ser fechado quando nenhuma outra thread o estiver usando.
+ */
+public final class MappedRecordFile implements Closeable {
+    private static final long SEGMENT_BYTES = Long.getLong("sortx.mappedSegmentBytes", 256L * 1024 * 1024);
+    private static final MethodHandle UNMAP = unmapper();
+
+    private final int recordSize;
+    private final long count;
+    private final int recordsPerSegment;
+    private final MappedByteBuffer[] segments;
+    private final byte[] tmpA;
+    private final byte[] tmpB;
+
+    private MappedRecordFile(FileChannel ch, int recordSize, long count, boolean writable) throws IOException {
+        this.recordSize = recordSize;
+        this.count = count;
+        this.recordsPerSegment = (int) Math.max(1, Math.min(Integer.MAX_VALUE / recordSize, SEGMENT_BYTES / recordSize));
+        int n = (int) ((count + recordsPerSegment - 1) / recordsPerSegment);
+        this.segments = new MappedByteBuffer[n];
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        try {
+            for (int s = 0; s < n; s++) {
+                long first = (long) s * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, count - first);
+                segments[s] = ch.map(mode, first * recordSize, records * recordSize);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        this.tmpA = new byte[recordSize];
+        this.tmpB = new byte[recordSize];
+    }
+
+    /** Mapeia os registros já existentes em {@code file}. */
+    public static MappedRecordFile open(File file, int recordSize, boolean writable) throws IOException {
+        return open(file, recordSize, file.length() / recordSize, writable);
+    }
+
+    /** Mapeia {@code count} registros, estendendo o arquivo se necessário (somente escrita). */
+    public static MappedRecordFile open(File file, int recordSize, long count, boolean writable) throws IOException {
+        StandardOpenOption[] opts = writable
+                ? new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE }
+                : new StandardOpenOption[] { StandardOpenOption.READ };
+        try (FileChannel ch = FileChannel.open(file.toPath(), opts)) {
+            return new MappedRecordFile(ch, recordSize, count, writable);
+        }
+    }
+
+    public long count() { return count; }
+
+    public int recordSize() { return recordSize; }
+
+    public long getLong(long record, int field) { return segment(record).getLong(position(record) + field); }
+
+    public int getInt(long record, int field) { return segment(record).getInt(position(record) + field); }
+
+    public byte get(long record, int field) { return segment(record).get(position(record) + field); }
+
+    public void get(long record, int field, byte[] dst) { segment(record).get(position(record) + field, dst); }
+
+    public void putLong(long record, int field, long v) { segment(record).putLong(position(record) + field, v); }
+
+    public void putInt(long record, int field, int v) { segment(record).putInt(position(record) + field, v); }
+
+    public void put(long record, int field, byte v) { segment(record).put(position(record) + field, v); }
+
+    public void put(long record, int field, byte[] src) { segment(record).put(position(record) + field, src); }
+
+    public void readRecord(long record, byte[] dst) { segment(record).get(position(record), dst, 0, recordSize); }
+
+    public void writeRecord(long record, byte[] src) { segment(record).put(position(record), src, 0, recordSize); }
+
+    public void swap(long i, long j) {
+        if (i == j) return;
+        readRecord(i, tmpA);
+        readRecord(j, tmpB);
+        writeRecord(i, tmpB);
+        writeRecord(j, tmpA);
+    }
+
+    /** Copia o registro {@code i} deste arquivo para a posição {@code j} de {@code dst}. */
+    public void copyTo(long i, MappedRecordFile dst, long j) {
+        readRecord(i, tmpA);
+        dst.writeRecord(j, tmpA);
+    }
+
+    private MappedByteBuffer segment(long record) {
+        return segments[(int) (record / recordsPerSegment)];
+    }
+
+    private int position(long record) {
+        return (int) (record % recordsPerSegment) * recordSize;
+    }
+
+    /**
+     * Desmapeia as janelas. Sem {@code jdk.unsupported} o desmapeamento fica a cargo do GC. Fechar
+     * de novo não faz nada; acessar depois de fechar lança {@link NullPointerException}.
+     */
+    @Override
+    public void close() {
+        for (int s = 0; s < segments.length; s++) {
+            MappedByteBuffer b = segments[s];
+            segments[s] = null;
+            if (b != null && UNMAP != null) {
+                try {
+                    UNMAP.invokeExact((ByteBuffer) b);
+                } catch (Throwable ignored) {
+                    // Fica para o GC
+                }
+            }
+        }
+    }
+
+    // Unsafe.invokeCleaner(ByteBuffer), ou null se o runtime não o expuser
+    private static MethodHandle unmapper() {
+        try {
+            Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+            Field f = unsafe.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafe, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(f.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package sortx.core.io;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Orçamento de heap para estruturas do sort externo. O total vem de {@code sortx.runMemoryBytes}
+ * ou, se ausente, de {@code sortx.runMemoryFraction} × {@link Runtime#maxMemory()}. A pressão de GC
+ * é lida dos pools de heap que suportam limiar pós-coleta: coletas que terminam com o uso acima de
+ * {@code sortx.gcPressureThreshold} da capacidade são contadas ({@link PressureProbe}).
+ * <p>
+ * O limiar pós-coleta é uma configuração global da JVM: ao carregar a classe ele é definido
+ * apenas nos pools em que ainda não havia limiar ({@code 0}) e nunca é restaurado. Se um agente
+ * de monitoração já tiver definido o seu, ele é mantido e as coletas passam a ser contadas por ele.
+ */
+public final class MemoryBudget {
+    private static final double PRESSURE_THRESHOLD = doubleProperty("sortx.gcPressureThreshold", 0.85);
+    private static final List<MemoryPoolMXBean> POOLS = watchedPools();
+
+    private MemoryBudget() { }
+
+    /** Bytes de heap disponíveis para o sort externo. */
+    public static long total() {
+        long bytes = Long.getLong("sortx.runMemoryBytes", 0L);
+        if (bytes > 0) return bytes;
+        double fraction = doubleProperty("sortx.runMemoryFraction", 0.25);
+        return Math.max(1L << 20, (long) (Runtime.getRuntime().maxMemory() * fraction));
+    }
+
+    /** Quantas coletas já terminaram com o heap acima do limiar. */
+    public static long pressureEvents() {
+        long n = 0;
+        for (MemoryPoolMXBean p : POOLS) n += p.getCollectionUsageThresholdCount();
+        return n;
+    }
+
+    /** Detecta coletas acima do limiar ocorridas desde a última consulta. */
+    public static final class PressureProbe {
+        private long seen = pressureEvents();
+
+        public boolean fired() {
+            long now = pressureEvents();
+            if (now == seen) return false;
+            seen = now;
+            return true;
+        }
+    }
+
+    private static List<MemoryPoolMXBean> watchedPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() != MemoryType.HEAP || !p.isCollectionUsageThresholdSupported()) continue;
+            long max = p.getUsage().getMax();
+            if (max <= 0) continue;
+            try {
+                // Limiar de outro dono (agente, JMX): reaproveita em vez de sobrescrever
+                if (p.getCollectionUsageThreshold() == 0) p.setCollectionUsageThreshold((long) (max * PRESSURE_THRESHOLD));
+                pools.add(p);
+            } catch (RuntimeException ignored) { }
+        }
+        return pools;
+    }
+
+    private static double doubleProperty(String name, double def) {
+        String v = System.getProperty(name);
+        if (v == null) return def;
+        try { return Double.parseDouble(v.trim()); } catch (NumberFormatException e) { return def; }
+    }
+}
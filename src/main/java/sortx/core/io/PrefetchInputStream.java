@@ -0,0 +1,98 @@
+package sortx.core.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Entrada com dois buffers: enquanto um é consumido, o seguinte é preenchido por {@link #fill} em
+ * uma thread virtual. Só há um preenchimento em andamento por vez, então {@link #fill} pode usar
+ * estado da subclasse sem sincronização.
+ */
+abstract class PrefetchInputStream extends InputStream {
+    private final byte[][] buffers;
+    private CompletableFuture<Integer> ahead;
+    private boolean started, ended;
+    private int slot = 1;
+    private byte[] current;
+    private int pos, limit;
+
+    PrefetchInputStream(int bufferSize) {
+        this.buffers = new byte[][] { new byte[bufferSize], new byte[bufferSize] };
+    }
+
+    /** Preenche {@link #buffer}(slot) e devolve quantos bytes gravou, ou -1 no fim dos dados. */
+    protected abstract int fill(int slot) throws IOException;
+
+    protected abstract void closeSource() throws IOException;
+
+    /** Buffer do slot com pelo menos {@code minSize} bytes. */
+    protected final byte[] buffer(int slot, int minSize) {
+        if (buffers[slot].length < minSize) buffers[slot] = new byte[minSize];
+        return buffers[slot];
+    }
+
+    private CompletableFuture<Integer> fetch(int s) {
+        return CompletableFuture.supplyAsync(() -> {
+            try { return fill(s); }
+            catch (IOException e) { throw new UncheckedIOException(e); }
+        }, AsyncStreams.IO);
+    }
+
+    private boolean refill() throws IOException {
+        if (ended) return false;
+        if (!started) {
+            started = true;
+            ahead = fetch(0);
+        }
+        int n = await(ahead);
+        if (n < 0) {
+            ended = true;
+            ahead = null;
+            return false;
+        }
+        slot ^= 1;
+        current = buffers[slot];
+        pos = 0;
+        limit = n;
+        ahead = fetch(slot ^ 1);
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pos == limit && !refill()) return -1;
+        return current[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (pos == limit && !refill()) return -1;
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(current, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ahead != null) {
+            try { ahead.join(); } catch (CompletionException ignored) { }
+            ahead = null;
+        }
+        ended = true;
+        closeSource();
+    }
+
+    private static int await(CompletableFuture<Integer> f) throws IOException {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException u) throw u.getCause();
+            throw e;
+        }
+    }
+}
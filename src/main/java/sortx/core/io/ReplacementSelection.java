@@ -0,0 +1,151 @@
+package sortx.core.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formação de runs por seleção com substituição: um heap de registros marcados com o número do
+ * run. O menor registro do run corrente é gravado e o próximo da entrada entra no heap; se a chave
+ * dele for menor que a última gravada, fica para o run seguinte. Em entrada aleatória os runs têm
+ * em média o dobro da capacidade do heap; em entrada quase ordenada sai um único run.
+ * Empates são desfeitos pela ordem de chegada, então o merge posterior continua estável.
+ * O heap é limitado em registros e em bytes retidos ({@link RunRecord#retainedBytes()}).
+ */
+public final class ReplacementSelection {
+
+    @FunctionalInterface
+    public interface RunFactory {
+        File create() throws IOException;
+    }
+
+    private final int capacity;
+    private final RunFactory factory;
+    private final RunRecord[] heap;
+    private final int[] runOf;
+    private final long[] seqOf;
+    private int size;
+    private long seq;
+    private long bytes;
+    private long maxBytes;
+
+    private final List<File> runs = new ArrayList<>();
+    private RunFile.Writer writer;
+    private int currentRun;
+    private byte[] lastKey;
+
+    public ReplacementSelection(int capacity, long maxBytes, RunFactory factory) {
+        this.capacity = Math.max(1, capacity);
+        this.maxBytes = maxBytes;
+        this.factory = factory;
+        this.heap = new RunRecord[this.capacity];
+        this.runOf = new int[this.capacity];
+        this.seqOf = new long[this.capacity];
+    }
+
+    /** Recebe um registro já com chave; grava o menor do heap quando ele está cheio. */
+    public void add(RunRecord r) throws IOException {
+        long cost = r.retainedBytes();
+        while (size == capacity || size > 0 && bytes + cost > maxBytes) {
+            lastKey = popAndEmit().key();
+        }
+        int run = lastKey != null && Arrays.compareUnsigned(r.key(), lastKey) < 0 ? currentRun + 1 : currentRun;
+        push(r, run);
+    }
+
+    /** Bytes retidos hoje pelo heap. */
+    public long bytes() { return bytes; }
+
+    /** Ajusta o limite de bytes; se ficou menor, o heap encolhe nas próximas inserções. */
+    public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+
+    /** Esvazia o heap e devolve os runs na ordem de geração. */
+    public List<File> finish() throws IOException {
+        while (size > 0) popAndEmit();
+        closeWriter();
+        return runs;
+    }
+
+    private RunRecord popAndEmit() throws IOException {
+        RunRecord top = heap[0];
+        int run = runOf[0];
+        bytes -= top.retainedBytes();
+        size--;
+        if (size > 0) {
+            move(size, 0);
+            siftDown(0);
+        }
+        heap[size] = null;
+        if (writer == null || run != currentRun) {
+            closeWriter();
+            currentRun = run;
+            File f = factory.create();
+            runs.add(f);
+            writer = new RunFile.Writer(f);
+        }
+        writer.write(top);
+        return top;
+    }
+
+    private void push(RunRecord r, int run) {
+        int i = size++;
+        heap[i] = r;
+        runOf[i] = run;
+        seqOf[i] = seq++;
+        bytes += r.retainedBytes();
+        siftUp(i);
+    }
+
+    private boolean less(int a, int b) {
+        if (runOf[a] != runOf[b]) return runOf[a] < runOf[b];
+        int c = Arrays.compareUnsigned(heap[a].key(), heap[b].key());
+        return c < 0 || c == 0 && seqOf[a] < seqOf[b];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            if (!less(i, p)) break;
+            swap(i, p);
+            i = p;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1, m = i;
+            if (l < size && less(l, m)) m = l;
+            if (l + 1 < size && less(l + 1, m)) m = l + 1;
+            if (m == i) return;
+            swap(i, m);
+            i = m;
+        }
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        runOf[to] = runOf[from];
+        seqOf[to] = seqOf[from];
+    }
+
+    private void swap(int a, int b) {
+        RunRecord r = heap[a]; heap[a] = heap[b]; heap[b] = r;
+        int t = runOf[a]; runOf[a] = runOf[b]; runOf[b] = t;
+        long s = seqOf[a]; seqOf[a] = seqOf[b]; seqOf[b] = s;
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /** Fecha o run aberto e apaga os runs gerados até aqui (uso em caso de falha). */
+    public void discard() {
+        try { closeWriter(); } catch (IOException ignored) { }
+        for (File f : runs) { try { f.delete(); } catch (Exception ignored) { } }
+    }
+}
@@ -0,0 +1,96 @@
+package sortx.core.io;
+
+import java.io.*;
+
+/**
+ * Formato binário dos runs do modo RUNS: {@code MAGIC} seguido de registros
+ * {@code [tamanho da chave][chave][tamanho da linha][linha]} (tamanhos em int). A chave é a de
+ * {@link sortx.core.rules.SortKeyEncoder}, então o merge compara bytes e copia a linha original
+ * para a saída sem parsear nem reimprimir CSV.
+ * <p>
+ * Depois do {@code MAGIC} vem um byte de codec: 0 = registros crus, 1 = blocos Deflate
+ * ({@link DeflateBlocks}). O codec de quem grava vem de {@code sortx.tempCompression}
+ * ({@code NONE} ou {@code DEFLATE}, nível {@code sortx.tempCompressionLevel}) lido a cada run,
+ * então pode mudar entre jobs; a leitura detecta o codec pelo cabeçalho.
+ */
+public final class RunFile {
+    private static final int MAGIC = 0x53585231; // "SXR1"
+    private static final int IO_BUFFER = Integer.getInteger("sortx.runIoBuffer", 256 * 1024);
+
+    private static final int CODEC_NONE = 0;
+    private static final int CODEC_DEFLATE = 1;
+
+    private RunFile() { }
+
+    private static int configuredCodec() {
+        return "DEFLATE".equalsIgnoreCase(System.getProperty("sortx.tempCompression", "NONE")) ? CODEC_DEFLATE : CODEC_NONE;
+    }
+
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+
+        public Writer(File file) throws IOException {
+            OutputStream os = AsyncStreams.doubleBuffered(new FileOutputStream(file), IO_BUFFER);
+            int codec = configuredCodec();
+            os.write(new byte[] { (byte) (MAGIC >>> 24), (byte) (MAGIC >>> 16), (byte) (MAGIC >>> 8), (byte) MAGIC, (byte) codec });
+            if (codec == CODEC_DEFLATE) {
+                os = new DeflateBlocks.Output(os, Integer.getInteger("sortx.tempCompressionLevel", 1));
+            }
+            this.out = new DataOutputStream(os);
+        }
+
+        public void write(RunRecord r) throws IOException { write(r.key(), r.line()); }
+
+        public void write(byte[] key, byte[] line) throws IOException {
+            out.writeInt(key.length);
+            out.write(key);
+            out.writeInt(line.length);
+            out.write(line);
+        }
+
+        @Override
+        public void close() throws IOException { out.close(); }
+    }
+
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+
+        public Reader(File file) throws IOException {
+            this(file, IO_BUFFER);
+        }
+
+        public Reader(File file, int bufferSize) throws IOException {
+            FileInputStream fis = new FileInputStream(file);
+            int codec;
+            try {
+                byte[] head = fis.readNBytes(5);
+                int magic = head.length < 5 ? 0
+                        : (head[0] & 0xFF) << 24 | (head[1] & 0xFF) << 16 | (head[2] & 0xFF) << 8 | head[3] & 0xFF;
+                if (magic != MAGIC) throw new IOException("Run inválido: " + file);
+                codec = head[4];
+                if (codec != CODEC_NONE && codec != CODEC_DEFLATE) throw new IOException("Codec de run desconhecido: " + codec);
+            } catch (IOException e) {
+                fis.close();
+                throw e;
+            }
+            // Leitura antecipada em segundo plano: no Deflate o próprio bloco seguinte já é lido e descomprimido adiante
+            this.in = new DataInputStream(codec == CODEC_DEFLATE
+                    ? new DeflateBlocks.Input(new BufferedInputStream(fis, bufferSize))
+                    : AsyncStreams.readAhead(fis, bufferSize));
+        }
+
+        /** Próximo registro ou {@code null} no fim do run. */
+        public RunRecord next() throws IOException {
+            int keyLen;
+            try { keyLen = in.readInt(); } catch (EOFException end) { return null; }
+            byte[] key = new byte[keyLen];
+            in.readFully(key);
+            byte[] line = new byte[in.readInt()];
+            in.readFully(line);
+            return new RunRecord(key, line);
+        }
+
+        @Override
+        public void close() throws IOException { in.close(); }
+    }
+}
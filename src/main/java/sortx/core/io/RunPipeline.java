@@ -0,0 +1,104 @@
+package sortx.core.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pipeline de geração de runs: quem lê o arquivo entrega blocos com {@link #submit}, um pool
+ * limitado os ordena e threads de escrita gravam cada run. No máximo {@code maxInFlight} blocos
+ * ficam em memória ao mesmo tempo (além do que está sendo lido): {@link #submit} bloqueia até um
+ * bloco ser gravado. Os runs são devolvidos na ordem dos blocos.
+ */
+public final class RunPipeline<C> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface RunWriter<C> {
+        File write(C chunk) throws IOException;
+    }
+
+    private final ExecutorService sortPool;
+    private final ExecutorService writePool;
+    private final Semaphore inFlight;
+    private final UnaryOperator<C> sorter;
+    private final RunWriter<C> writer;
+    private final List<CompletableFuture<File>> runs = new ArrayList<>();
+    private boolean finished;
+
+    public RunPipeline(int sortThreads, int writerThreads, int maxInFlight, UnaryOperator<C> sorter, RunWriter<C> writer) {
+        this.sortPool = Executors.newFixedThreadPool(Math.max(1, sortThreads));
+        this.writePool = Executors.newFixedThreadPool(Math.max(1, writerThreads));
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        this.sorter = sorter;
+        this.writer = writer;
+    }
+
+    public void submit(C chunk) throws IOException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido", e);
+        }
+        for (CompletableFuture<File> f : runs) {
+            if (f.isCompletedExceptionally()) {
+                inFlight.release();
+                await(f);
+            }
+        }
+        CompletableFuture<File> run = CompletableFuture
+                .supplyAsync(() -> sorter.apply(chunk), sortPool)
+                .thenApplyAsync(sorted -> {
+                    try { return writer.write(sorted); }
+                    catch (IOException e) { throw new UncheckedIOException(e); }
+                }, writePool)
+                .whenComplete((f, err) -> inFlight.release());
+        runs.add(run);
+    }
+
+    /** Espera todos os blocos e devolve os runs na ordem de submissão. */
+    public List<File> finish() throws IOException {
+        List<File> files = new ArrayList<>(runs.size());
+        IOException failure = null;
+        for (CompletableFuture<File> f : runs) {
+            try { files.add(await(f)); }
+            catch (IOException e) { if (failure == null) failure = e; }
+        }
+        if (failure != null) {
+            for (File f : files) { try { f.delete(); } catch (Exception ignored) { } }
+            throw failure;
+        }
+        finished = true;
+        return files;
+    }
+
+    private static File await(CompletableFuture<File> f) throws IOException {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof UncheckedIOException u) throw u.getCause();
+            if (c instanceof RuntimeException r) throw r;
+            if (c instanceof Error err) throw err;
+            throw new IOException(c);
+        }
+    }
+
+    /** Encerra os pools; sem {@link #finish} bem-sucedido (falha ou cancelamento), apaga os runs já gravados. */
+    @Override
+    public void close() {
+        sortPool.shutdownNow();
+        writePool.shutdownNow();
+        if (!finished) {
+            for (CompletableFuture<File> f : runs) f.thenAccept(File::delete);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package sortx.core.io;
+
+import sortx.core.sort.ByteKeyed;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** Registro de um run: chave de ordenação já calculada + bytes originais da linha CSV. */
+public record RunRecord(byte[] key, byte[] line) implements ByteKeyed {
+    public static final Comparator<RunRecord> ORDER = (a, b) -> Arrays.compareUnsigned(a.key, b.key);
+
+    /** Bytes aproximados ocupados em memória (arrays + cabeçalhos de objeto). */
+    public long retainedBytes() { return 64L + (key == null ? 0 : key.length) + line.length; }
+}
@@ -0,0 +1,76 @@
+package sortx.core.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Onde ficam os arquivos temporários do sort externo. {@code sortx.tmpDirs} lista diretórios
+ * separados por {@link File#pathSeparator} (padrão: {@code java.io.tmpdir}); cada arquivo novo vai
+ * para o próximo diretório da lista ({@code sortx.tmpPlacement=ROUND_ROBIN}, padrão) ou para o de
+ * maior espaço livre ({@code SPACE}). Antes de cada arquivo confere-se se sobram pelo menos o
+ * tamanho esperado mais {@code sortx.tmpMinFreeBytes}; diretórios sem espaço são pulados.
+ */
+public final class SpillDirectories {
+    private static final AtomicInteger NEXT = new AtomicInteger();
+
+    private SpillDirectories() { }
+
+    public static File createTempFile(String prefix, String suffix) throws IOException {
+        return createTempFile(prefix, suffix, 0);
+    }
+
+    /** Cria o arquivo em um diretório de spill com espaço para {@code expectedBytes}. */
+    public static File createTempFile(String prefix, String suffix, long expectedBytes) throws IOException {
+        List<File> dirs = directories();
+        long needed = Math.max(0, expectedBytes) + Long.getLong("sortx.tmpMinFreeBytes", 64L << 20);
+        boolean bySpace = "SPACE".equalsIgnoreCase(System.getProperty("sortx.tmpPlacement", "ROUND_ROBIN"));
+
+        File chosen = null;
+        if (bySpace) {
+            long best = -1;
+            for (File d : dirs) {
+                long free = d.getUsableSpace();
+                if (free >= needed && free > best) { best = free; chosen = d; }
+            }
+        } else {
+            int start = Math.floorMod(NEXT.getAndIncrement(), dirs.size());
+            for (int i = 0; i < dirs.size() && chosen == null; i++) {
+                File d = dirs.get((start + i) % dirs.size());
+                if (d.getUsableSpace() >= needed) chosen = d;
+            }
+        }
+        if (chosen == null) {
+            throw new IOException("Sem espaço nos diretórios temporários " + dirs + " para " + expectedBytes + " bytes");
+        }
+        return File.createTempFile(prefix, suffix, chosen);
+    }
+
+    /** Cria o arquivo no mesmo diretório de {@code near} (necessário quando depois há move atômico). */
+    public static File createSibling(File near, String prefix, String suffix, long expectedBytes) throws IOException {
+        File dir = near.getAbsoluteFile().getParentFile();
+        long needed = Math.max(0, expectedBytes) + Long.getLong("sortx.tmpMinFreeBytes", 64L << 20);
+        if (dir.getUsableSpace() < needed) {
+            throw new IOException("Sem espaço em " + dir + " para " + expectedBytes + " bytes");
+        }
+        return File.createTempFile(prefix, suffix, dir);
+    }
+
+    private static List<File> directories() throws IOException {
+        String prop = System.getProperty("sortx.tmpDirs");
+        if (prop == null || prop.isBlank()) prop = System.getProperty("java.io.tmpdir");
+        List<File> dirs = new ArrayList<>();
+        for (String p : prop.split(File.pathSeparator)) {
+            if (p.isBlank()) continue;
+            File d = new File(p.trim());
+            if (!d.isDirectory() && !d.mkdirs()) {
+                throw new IOException("Diretório temporário inválido: " + d);
+            }
+            dirs.add(d);
+        }
+        if (dirs.isEmpty()) throw new IOException("Nenhum diretório temporário configurado");
+        return dirs;
+    }
+}
@@ -1,6 +1,7 @@
 package sortx.core.rules;
 
 import sortx.core.data.DataRecord;
+import sortx.core.data.column.DateColumn;
 
 import java.text.Collator;
 import java.time.LocalDate;
@@ -55,7 +56,7 @@ public class ComparatorFactory {
         return Comparator.<Double>nullsLast(Double::compareTo).compare(da, db);
     }
 
-    private static Double toDouble(Object o) {
+    static Double toDouble(Object o) {
         if (o == null) return null;
         if (o instanceof Number n) return n.doubleValue();
         try { return Double.parseDouble(o.toString().replace(",", ".")); }
@@ -71,15 +72,10 @@ public class ComparatorFactory {
         return da.compareTo(db);
     }
 
-    private static LocalDate toDate(Object o) {
+    static LocalDate toDate(Object o) {
         if (o == null) return null;
         String s = o.toString().trim();
-        DateTimeFormatter[] fmts = new DateTimeFormatter[] {
-                DateTimeFormatter.ISO_LOCAL_DATE,
-                DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-                DateTimeFormatter.ofPattern("MM/dd/yyyy")
-        };
-        for (DateTimeFormatter f : fmts) {
+        for (DateTimeFormatter f : DateColumn.FORMATS) {
             try { return LocalDate.parse(s, f); } catch (Exception ignored) {}
         }
         return null;
@@ -94,7 +90,7 @@ public class ComparatorFactory {
         return Boolean.compare(ba, bb);
     }
 
-    private static Boolean toBoolean(Object o) {
+    static Boolean toBoolean(Object o) {
         if (o == null) return null;
         if (o instanceof Boolean b) return b;
         String s = o.toString().trim().toLowerCase();
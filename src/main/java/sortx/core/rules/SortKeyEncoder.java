@@ -0,0 +1,224 @@
+package sortx.core.rules;
+
+import sortx.core.data.DataRecord;
+import sortx.core.data.DataSet;
+import sortx.core.data.LazyDataRecord;
+import sortx.core.data.column.BooleanColumn;
+import sortx.core.data.column.Column;
+import sortx.core.data.column.DateColumn;
+import sortx.core.data.column.DictionaryColumn;
+import sortx.core.data.column.NumberColumn;
+import sortx.core.sort.ByteKeyed;
+
+import java.text.Collator;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Codifica uma linha, uma única vez, em uma chave de bytes cuja ordem sem sinal
+ * ({@link Arrays#compareUnsigned}) é a mesma do comparador de {@link ComparatorFactory#build}.
+ *
+ * Cada regra vira um segmento: um byte de marcação (valor válido / não interpretável / nulo, na
+ * mesma posição relativa que o comparador usa) seguido do valor — NUMBER em 8 bytes
+ * (double com ordem preservada), DATE em 4 bytes (dia da época), BOOLEAN só no marcador e STRING
+ * com os bytes da {@link java.text.CollationKey} (zeros escapados e terminador {@code 00 00}) —
+ * ou, numa {@link DictionaryColumn}, o posto do valor na colação em 4 bytes, calculado uma vez
+ * por valor distinto. Segmentos DESC têm todos os bytes invertidos. Todo segmento exceto STRING
+ * fora de dicionário tem largura fixa.
+ */
+public class SortKeyEncoder {
+    public static final Comparator<byte[]> KEY_ORDER = Arrays::compareUnsigned;
+
+    /** Chave já calculada de uma linha; {@link #ORDER} desempata por {@code row}, então qualquer algoritmo é estável. */
+    public record Keyed(byte[] key, int row) implements ByteKeyed {
+        public static final Comparator<Keyed> ORDER = (a, b) -> {
+            int c = Arrays.compareUnsigned(a.key, b.key);
+            return c != 0 ? c : Integer.compare(a.row, b.row);
+        };
+    }
+
+    private final SortRule[] rules;
+    private final Collator[] collators;
+    private final DictionaryColumn[] rankedColumns;
+    private final int[][] ranks;
+    private byte[] buf = new byte[64];
+    private int len;
+
+    public SortKeyEncoder(RuleSet ruleSet, Locale locale) {
+        this.rules = ruleSet.all().toArray(new SortRule[0]);
+        this.collators = new Collator[rules.length];
+        this.rankedColumns = new DictionaryColumn[rules.length];
+        this.ranks = new int[rules.length][];
+        for (int i = 0; i < rules.length; i++) {
+            if (rules[i].getType() == ColumnType.STRING || rules[i].getType() == null) {
+                Collator collator = Collator.getInstance(locale);
+                collator.setStrength(rules[i].isCaseInsensitive() ? Collator.PRIMARY : Collator.TERTIARY);
+                collators[i] = collator;
+            }
+        }
+    }
+
+    public List<SortRule> rules() { return List.of(rules); }
+
+    /** Todas as chaves terão a mesma largura (nenhuma regra STRING): elegível a radix LSD. */
+    public boolean fixedWidth() {
+        for (SortRule r : rules) {
+            if (r.getType() == ColumnType.STRING || r.getType() == null) return false;
+        }
+        return true;
+    }
+
+    /** Como {@link #fixedWidth()}, contando como fixas as regras STRING sobre colunas de dicionário. */
+    public boolean fixedWidth(DataSet dataSet) {
+        for (SortRule r : rules) {
+            if (r.getType() == null) return false;
+            if (r.getType() == ColumnType.STRING && !(dataSet.column(r.getColumn()) instanceof DictionaryColumn)) return false;
+        }
+        return true;
+    }
+
+    public byte[] encode(DataRecord record) {
+        len = 0;
+        for (int i = 0; i < rules.length; i++) {
+            int start = len;
+            writeValue(i, record.asMap().get(rules[i].getColumn()));
+            finishSegment(i, start);
+        }
+        return Arrays.copyOf(buf, len);
+    }
+
+    /** Codifica a linha {@code row} lendo direto dos arrays primitivos quando o tipo da coluna coincide com o da regra. */
+    public byte[] encode(DataSet dataSet, int row) {
+        len = 0;
+        for (int i = 0; i < rules.length; i++) {
+            int start = len;
+            Column c = dataSet.column(rules[i].getColumn());
+            if (c == null) writeValue(i, null);
+            else if (c.type() != rules[i].getType()) writeValue(i, c.get(row));
+            else if (c instanceof DictionaryColumn dc) writeCode(i, dc, row);
+            else if (c.isMissing(row)) writeValue(i, c.get(row));
+            else if (c instanceof NumberColumn nc) writeNumber(nc.getDouble(row));
+            else if (c instanceof DateColumn dc) writeDate(dc.getEpochDay(row));
+            else if (c instanceof BooleanColumn bc) put(bc.getBoolean(row) ? 0x03 : 0x02);
+            else writeValue(i, c.get(row));
+            finishSegment(i, start);
+        }
+        return Arrays.copyOf(buf, len);
+    }
+
+    /** Posição de cada coluna de regra em {@code headers} (-1 se ausente), para {@link #encode(String[], int[])}. */
+    public int[] positions(List<String> headers) {
+        int[] pos = new int[rules.length];
+        for (int i = 0; i < rules.length; i++) pos[i] = headers.indexOf(rules[i].getColumn());
+        return pos;
+    }
+
+    /** Codifica um registro já dividido em campos (ordem do cabeçalho). */
+    public byte[] encode(String[] fields, int[] positions) {
+        len = 0;
+        for (int i = 0; i < rules.length; i++) {
+            int start = len;
+            int p = positions[i];
+            writeValue(i, p >= 0 && p < fields.length ? fields[p] : null);
+            finishSegment(i, start);
+        }
+        return Arrays.copyOf(buf, len);
+    }
+
+    /** Codifica uma linha bruta decodificando só os campos das regras. */
+    public byte[] encode(LazyDataRecord record, int[] positions) {
+        len = 0;
+        for (int i = 0; i < rules.length; i++) {
+            int start = len;
+            writeValue(i, record.field(positions[i]));
+            finishSegment(i, start);
+        }
+        return Arrays.copyOf(buf, len);
+    }
+
+    private void writeValue(int rule, Object value) {
+        ColumnType type = rules[rule].getType();
+        if (type == null) type = ColumnType.STRING;
+        switch (type) {
+            case NUMBER -> {
+                if (value == null) { put(0x03); pad(8); return; }
+                Double d = ComparatorFactory.toDouble(value);
+                if (d == null) { put(0x02); pad(8); } else writeNumber(d);
+            }
+            case DATE -> {
+                if (value == null) { put(0x03); pad(4); return; }
+                LocalDate d = ComparatorFactory.toDate(value);
+                if (d == null) { put(0x01); pad(4); }
+                else writeDate((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, d.toEpochDay())));
+            }
+            case BOOLEAN -> {
+                if (value == null) { put(0x04); return; }
+                Boolean b = ComparatorFactory.toBoolean(value);
+                put(b == null ? 0x01 : b ? 0x03 : 0x02);
+            }
+            case STRING -> {
+                if (value == null) { put(0x02); return; }
+                put(0x01);
+                byte[] ck = collators[rule].getCollationKey(String.valueOf(value)).toByteArray();
+                ensure(ck.length * 2 + 2);
+                for (byte b : ck) {
+                    buf[len++] = b;
+                    if (b == 0) buf[len++] = (byte) 0xFF;
+                }
+                buf[len++] = 0;
+                buf[len++] = 0;
+            }
+        }
+    }
+
+    private void writeCode(int rule, DictionaryColumn c, int row) {
+        int code = c.code(row);
+        if (code < 0) { put(0x02); pad(4); return; }
+        if (rankedColumns[rule] != c || ranks[rule].length != c.cardinality()) {
+            ranks[rule] = c.ranks(collators[rule]);
+            rankedColumns[rule] = c;
+        }
+        int v = ranks[rule][code];
+        put(0x01);
+        ensure(4);
+        for (int s = 24; s >= 0; s -= 8) buf[len++] = (byte) (v >>> s);
+    }
+
+    private void writeNumber(double d) {
+        long bits = Double.doubleToLongBits(d);
+        bits ^= (bits >> 63) | Long.MIN_VALUE;
+        put(0x01);
+        ensure(8);
+        for (int s = 56; s >= 0; s -= 8) buf[len++] = (byte) (bits >>> s);
+    }
+
+    private void writeDate(int epochDay) {
+        int v = epochDay ^ Integer.MIN_VALUE;
+        put(0x02);
+        ensure(4);
+        for (int s = 24; s >= 0; s -= 8) buf[len++] = (byte) (v >>> s);
+    }
+
+    private void finishSegment(int rule, int start) {
+        if (rules[rule].getOrder() != SortOrder.DESC) return;
+        for (int i = start; i < len; i++) buf[i] = (byte) ~buf[i];
+    }
+
+    private void put(int b) {
+        ensure(1);
+        buf[len++] = (byte) b;
+    }
+
+    private void pad(int n) {
+        ensure(n);
+        Arrays.fill(buf, len, len + n, (byte) 0);
+        len += n;
+    }
+
+    private void ensure(int extra) {
+        if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+    }
+}
@@ -0,0 +1,75 @@
+package sortx.core.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle de um trabalho em segundo plano criado pelo {@link JobService}: resultado em
+ * {@link #future()}, fase e progresso atuais (atualizados pela própria tarefa) e {@link #cancel()}.
+ * O cancelamento é cooperativo: interrompe a thread do job, e o futuro só termina (cancelado)
+ * quando a tarefa de fato para e limpa o que criou.
+ */
+public final class Job<T> implements ProgressListener {
+
+    /** Corpo do job; recebe o próprio handle para informar fase e progresso. */
+    @FunctionalInterface
+    public interface Task<T> {
+        T run(Job<T> job) throws Exception;
+    }
+
+    private final String name;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private volatile String phase = "Na fila";
+    private volatile double progress = -1;
+    private volatile boolean cancelled;
+    private Thread worker;
+
+    Job(String name) {
+        this.name = name;
+    }
+
+    public String name() { return name; }
+    public CompletableFuture<T> future() { return future; }
+    public String phase() { return phase; }
+
+    /** Progresso da fase atual em [0, 1]; negativo quando indeterminado. */
+    public double progress() { return progress; }
+
+    public boolean isCancelled() { return cancelled; }
+
+    /** Pede o cancelamento; {@code false} se o job já terminou. */
+    public synchronized boolean cancel() {
+        if (future.isDone()) return false;
+        cancelled = true;
+        phase = "Cancelando";
+        if (worker != null) worker.interrupt();
+        else future.cancel(false); // ainda na fila
+        return true;
+    }
+
+    /** Atualiza fase e progresso; também é ponto de cancelamento (de qualquer thread do job). */
+    @Override
+    public void update(String phase, double fraction) {
+        if (cancelled) throw new CancellationException("Operação cancelada");
+        this.phase = phase;
+        this.progress = fraction;
+    }
+
+    void run(Task<T> task) {
+        synchronized (this) {
+            if (future.isDone()) return;
+            worker = Thread.currentThread();
+        }
+        try {
+            future.complete(task.run(this));
+        } catch (Throwable e) {
+            if (cancelled) future.cancel(false);
+            else future.completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                worker = null;
+                Thread.interrupted(); // a thread volta limpa para o pool
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package sortx.core.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executa trabalhos longos fora da thread da interface. Ordenações (em memória ou do arquivo) usam
+ * um pool dedicado de {@code sortx.jobThreads} threads de plataforma: fazem CPU e coordenam E/S
+ * assíncrona própria, às vezes esperando dentro de streams sincronizados, o que prenderia uma
+ * thread virtual ao carrier. Jobs só de E/S (importação) usam uma thread virtual cada.
+ */
+@Service
+public class JobService implements AutoCloseable {
+    private final ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(1, Integer.getInteger("sortx.jobThreads", 1)),
+            Thread.ofPlatform().name("sortx-job-", 0).daemon().factory());
+    private final ExecutorService io = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sortx-io-job-", 0).factory());
+
+    public <T> Job<T> submit(String name, Job.Task<T> task) {
+        return submit(workers, name, task);
+    }
+
+    public <T> Job<T> submitIo(String name, Job.Task<T> task) {
+        return submit(io, name, task);
+    }
+
+    private static <T> Job<T> submit(ExecutorService executor, String name, Job.Task<T> task) {
+        Job<T> job = new Job<>(name);
+        executor.execute(() -> job.run(task));
+        return job;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        io.shutdownNow();
+    }
+}
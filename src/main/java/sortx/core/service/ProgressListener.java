@@ -0,0 +1,10 @@
+package sortx.core.service;
+
+/** Recebe a fase atual e o progresso de uma operação longa (ordenação, importação). */
+@FunctionalInterface
+public interface ProgressListener {
+    ProgressListener NONE = (phase, fraction) -> { };
+
+    /** {@code fraction} em [0, 1], ou negativo quando o progresso da fase é indeterminado. */
+    void update(String phase, double fraction);
+}
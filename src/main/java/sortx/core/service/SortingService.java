@@ -1,31 +1,206 @@
 package sortx.core.service;
 
 import org.springframework.stereotype.Service;
-import sortx.core.data.DataRecord;
 import sortx.core.data.DataSet;
-import sortx.core.rules.ComparatorFactory;
+import sortx.core.data.LazyDataRecord;
+import sortx.core.data.parser.CsvLine;
+import sortx.core.data.parser.CsvRecordReader;
 import sortx.core.rules.RuleSet;
+import sortx.core.rules.SortKeyEncoder;
+import sortx.core.sort.AutoSortStrategy;
+import sortx.core.sort.BoundedHeap;
+import sortx.core.sort.RadixSortStrategy;
 import sortx.core.sort.SortStrategy;
 import sortx.core.sort.SortStrategyRegistry;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class SortingService {
+    private static final int STREAM_BUFFER = Integer.getInteger("sortx.runIoBuffer", 256 * 1024);
+    private static final int PROGRESS_MASK = 0xFFF; // progresso e cancelamento a cada 4096 linhas
+
     private final SortStrategyRegistry registry;
 
     public SortingService(SortStrategyRegistry registry) {
         this.registry = registry;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
+    /** Ordena o DataSet no lugar: calcula {@link #argsort} e permuta as colunas. */
     public void sort(DataSet dataSet, RuleSet rules, String algorithmName, Locale locale) {
-        List<DataRecord> working = dataSet.snapshot();
-        Comparator<DataRecord> comparator = ComparatorFactory.build(rules, locale);
-        SortStrategy<Object> strategy = registry.byName(algorithmName);
-        strategy.sort((List)(working), (Comparator)comparator);
-        dataSet.replaceAll(working);
+        sort(dataSet, rules, algorithmName, locale, ProgressListener.NONE);
+    }
+
+    /** Igual a {@link #sort(DataSet, RuleSet, String, Locale)}, informando fase e progresso (ex.: a um {@link Job}). */
+    public void sort(DataSet dataSet, RuleSet rules, String algorithmName, Locale locale, ProgressListener progress) {
+        int[] order = argsort(dataSet, rules, algorithmName, locale, progress);
+        progress.update("Reordenando linhas", -1);
+        dataSet.permute(order);
+    }
+
+    /**
+     * Permutação que ordena o DataSet sem alterá-lo: a posição {@code i} da ordem é a linha
+     * {@code order[i]}. Cada linha é codificada uma única vez em uma chave de bytes
+     * ({@link SortKeyEncoder}) e as chaves são ordenadas com o algoritmo escolhido, sempre sobre
+     * arrays: chaves cujos bytes variáveis cabem em 8 viram {@code long} ({@link SortStrategy#argsort(long[])}),
+     * o radix sort trabalha direto no array de chaves e os demais ordenam um {@code Keyed[]}. Com {@code Auto} o algoritmo é
+     * decidido aqui, já com as chaves em mãos. Use {@link DataSet#view(int[])} para ler as linhas
+     * na ordem sem movê-las.
+     */
+    public int[] argsort(DataSet dataSet, RuleSet rules, String algorithmName, Locale locale) {
+        return argsort(dataSet, rules, algorithmName, locale, ProgressListener.NONE);
+    }
+
+    /** Igual a {@link #argsort(DataSet, RuleSet, String, Locale)}, informando fase e progresso. */
+    public int[] argsort(DataSet dataSet, RuleSet rules, String algorithmName, Locale locale, ProgressListener progress) {
+        SortKeyEncoder encoder = new SortKeyEncoder(rules, locale);
+        int n = dataSet.size();
+        byte[][] keys = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            if ((i & PROGRESS_MASK) == 0) progress.update("Calculando chaves", (double) i / n);
+            keys[i] = encoder.encode(dataSet, i);
+        }
+        progress.update("Ordenando", -1);
+
+        SortStrategy<SortKeyEncoder.Keyed> strategy = registry.byName(algorithmName);
+        if (strategy instanceof AutoSortStrategy<?> auto) {
+            double presorted = SortStrategyRegistry.presortedness(Arrays.asList(keys), SortKeyEncoder.KEY_ORDER);
+            strategy = auto.plan(n, presorted, encoder.fixedWidth(dataSet));
+        }
+        SortStrategyRegistry.checkQuadratic(strategy, n);
+        long[] packed = packKeys(keys);
+        if (packed != null) return strategy.argsort(packed);
+        if (strategy instanceof RadixSortStrategy) return RadixSortStrategy.argsort(keys);
+        SortKeyEncoder.Keyed[] working = new SortKeyEncoder.Keyed[n];
+        for (int i = 0; i < n; i++) working[i] = new SortKeyEncoder.Keyed(keys[i], i);
+        strategy.sort(working, 0, n, SortKeyEncoder.Keyed.ORDER);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = working[i].row();
+        return order;
+    }
+
+    /**
+     * Chaves de mesma largura em que só até 8 posições variam (bytes constantes nas pontas, como o
+     * marcador de nulo) viram {@code long} com a mesma ordem; {@code null} se não couber.
+     */
+    private static long[] packKeys(byte[][] keys) {
+        int n = keys.length;
+        if (n == 0) return null;
+        byte[] k0 = keys[0];
+        int width = k0.length, first = width, last = -1;
+        for (byte[] k : keys) {
+            if (k.length != width) return null;
+            for (int d = 0; d < first; d++) {
+                if (k[d] != k0[d]) { first = d; break; }
+            }
+            for (int d = width - 1; d > last; d--) {
+                if (k[d] != k0[d]) { last = d; break; }
+            }
+            if (last - first >= 8) return null;
+        }
+        long[] packed = new long[n];
+        if (last < first) return packed; // todas as chaves iguais
+        int shift = 8 * (8 - (last - first + 1));
+        for (int i = 0; i < n; i++) {
+            long v = 0;
+            for (int d = first; d <= last; d++) v = v << 8 | (keys[i][d] & 0xFF);
+            packed[i] = (v << shift) ^ Long.MIN_VALUE; // ordem sem sinal dos bytes = ordem com sinal do long
+        }
+        return packed;
+    }
+
+    /** As {@code k} primeiras linhas na ordem das regras (índices em ordem), com heap limitado: O(n log k). */
+    public int[] topK(DataSet dataSet, RuleSet rules, int k, Locale locale) {
+        SortKeyEncoder encoder = new SortKeyEncoder(rules, locale);
+        BoundedHeap<SortKeyEncoder.Keyed> heap = new BoundedHeap<>(Math.min(k, dataSet.size()), SortKeyEncoder.Keyed.ORDER);
+        for (int i = 0; i < dataSet.size(); i++) heap.offer(new SortKeyEncoder.Keyed(encoder.encode(dataSet, i), i));
+        return rowsOf(heap.sorted());
+    }
+
+    /**
+     * Linhas {@code [offset, offset + limit)} da ordem completa, sem ordenar o resto: seleção
+     * (quickselect) isola a página e só ela é ordenada. Empates seguem a ordem original das linhas.
+     */
+    public int[] page(DataSet dataSet, RuleSet rules, int offset, int limit, Locale locale) {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("Página inválida: offset=" + offset + ", limit=" + limit);
+        int n = dataSet.size();
+        int from = Math.min(offset, n), to = (int) Math.min((long) offset + limit, n);
+        if (from >= to) return new int[0];
+        SortKeyEncoder encoder = new SortKeyEncoder(rules, locale);
+        SortKeyEncoder.Keyed[] all = new SortKeyEncoder.Keyed[n];
+        for (int i = 0; i < n; i++) all[i] = new SortKeyEncoder.Keyed(encoder.encode(dataSet, i), i);
+        select(all, 0, n, from);
+        select(all, from, n, to - 1);
+        Arrays.sort(all, from, to, SortKeyEncoder.Keyed.ORDER);
+        return rowsOf(Arrays.asList(all).subList(from, to));
+    }
+
+    /**
+     * Top-K direto de um CSV em uma passada, sem carregar o arquivo: guarda só as {@code k} melhores
+     * linhas (chave + bytes) e devolve um DataSet com elas na ordem das regras.
+     */
+    public DataSet topK(File csv, RuleSet rules, int k, Locale locale) throws IOException {
+        SortKeyEncoder encoder = new SortKeyEncoder(rules, locale);
+        DataSet out = new DataSet();
+        try (CsvRecordReader reader = new CsvRecordReader(new FileInputStream(csv), STREAM_BUFFER)) {
+            byte[] header = reader.next();
+            if (header == null) return out;
+            LazyDataRecord.Schema schema = new LazyDataRecord.Schema(Arrays.asList(CsvLine.split(new String(header, StandardCharsets.UTF_8))));
+            for (String h : schema.headers()) out.addHeader(h);
+            int[] positions = encoder.positions(schema.headers());
+
+            BoundedHeap<StreamedRow> heap = new BoundedHeap<>(k, StreamedRow.ORDER);
+            long seq = 0;
+            for (byte[] line = reader.next(); line != null; line = reader.next()) {
+                if (line.length == 0) continue;
+                // Só os campos das regras são decodificados; as k linhas mantidas são divididas no fim
+                LazyDataRecord row = new LazyDataRecord(schema, line);
+                heap.offer(new StreamedRow(encoder.encode(row, positions), row, seq++));
+            }
+            for (StreamedRow r : heap.sorted()) out.addRow(r.row().values());
+        }
+        return out;
+    }
+
+    private record StreamedRow(byte[] key, LazyDataRecord row, long seq) {
+        static final Comparator<StreamedRow> ORDER = (a, b) -> {
+            int c = Arrays.compareUnsigned(a.key, b.key);
+            return c != 0 ? c : Long.compare(a.seq, b.seq);
+        };
+    }
+
+    private static int[] rowsOf(List<SortKeyEncoder.Keyed> keyed) {
+        int[] rows = new int[keyed.size()];
+        for (int i = 0; i < rows.length; i++) rows[i] = keyed.get(i).row();
+        return rows;
+    }
+
+    // Quickselect: deixa em a[nth] o elemento dessa posição na ordem total, menores à esquerda e maiores à direita
+    private static void select(SortKeyEncoder.Keyed[] a, int lo, int hi, int nth) {
+        hi--;
+        while (lo < hi) {
+            SortKeyEncoder.Keyed pivot = a[ThreadLocalRandom.current().nextInt(lo, hi + 1)];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (SortKeyEncoder.Keyed.ORDER.compare(a[i], pivot) < 0) i++;
+                while (SortKeyEncoder.Keyed.ORDER.compare(a[j], pivot) > 0) j--;
+                if (i <= j) {
+                    SortKeyEncoder.Keyed t = a[i]; a[i] = a[j]; a[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (nth <= j) hi = j;
+            else if (nth >= i) lo = i;
+            else return;
+        }
     }
 }
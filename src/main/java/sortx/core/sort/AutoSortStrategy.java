@@ -0,0 +1,84 @@
+package sortx.core.sort;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Escolhe o algoritmo por um modelo de custo simples: tamanho, pré-ordenação estimada
+ * ({@link SortStrategyRegistry#presortedness}), chaves elegíveis a radix, núcleos e heap livre.
+ * Nunca escolhe algoritmos O(n²). A decisão e o motivo vão para o log.
+ */
+public class AutoSortStrategy<T> implements SortStrategy<T> {
+    private static final Logger log = LoggerFactory.getLogger(AutoSortStrategy.class);
+
+    private static final int SMALL = 64;
+    private static final double RUNS_THRESHOLD = 0.9;
+    private static final int RADIX_MIN_ROWS = 10_000;
+    private static final int PARALLEL_MIN_ROWS = 100_000;
+
+    private final SortStrategyRegistry registry;
+
+    public AutoSortStrategy(SortStrategyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String name() { return "Auto"; }
+
+    @Override
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        if (to - from < 2) return;
+        List<T> range = Arrays.asList(a).subList(from, to);
+        double presorted = SortStrategyRegistry.presortedness(range, comparator);
+        this.<T>plan(to - from, presorted, fixedWidthKeys(range)).sort(a, from, to, comparator);
+    }
+
+    @Override
+    public int[] argsort(long[] keys) {
+        return plan(keys.length, SortStrategyRegistry.presortedness(keys), true).argsort(keys);
+    }
+
+    /**
+     * Algoritmo para {@code n} linhas com a pré-ordenação dada; {@code radixEligible} indica chaves
+     * de bytes de largura fixa (só regras NUMBER/DATE/BOOLEAN).
+     */
+    @SuppressWarnings("unchecked")
+    public <E> SortStrategy<E> plan(int n, double presorted, boolean radixEligible) {
+        Runtime rt = Runtime.getRuntime();
+        int cores = rt.availableProcessors();
+        long freeHeap = rt.maxMemory() - (rt.totalMemory() - rt.freeMemory());
+        long auxBytes = 8L * n; // array auxiliar de referências do merge
+
+        String choice, reason;
+        if (n <= SMALL) {
+            choice = "TimSort"; reason = "entrada pequena (insertion sort binário)";
+        } else if (presorted >= RUNS_THRESHOLD || presorted <= 1 - RUNS_THRESHOLD) {
+            choice = "TimSort"; reason = "dados quase ordenados ou invertidos: aproveita runs existentes";
+        } else if (radixEligible && n >= RADIX_MIN_ROWS) {
+            choice = "RadixSort"; reason = "chaves de largura fixa: radix LSD linear";
+        } else if (auxBytes > freeHeap / 2) {
+            choice = "IntroSort"; reason = "pouca memória livre para o array auxiliar do merge";
+        } else if (cores > 1 && n >= PARALLEL_MIN_ROWS) {
+            choice = "ParallelMergeSort"; reason = cores + " núcleos disponíveis";
+        } else {
+            choice = "TimSort"; reason = "merge adaptativo estável";
+        }
+        log.info("Auto: n={}, pré-ordenação={}, radix={}, núcleos={}, heap livre={} MiB -> {} ({})",
+                n, String.format("%.2f", presorted), radixEligible, cores, freeHeap >> 20, choice, reason);
+        return (SortStrategy<E>) registry.byName(choice);
+    }
+
+    private static boolean fixedWidthKeys(List<?> list) {
+        int width = -1;
+        for (Object o : list) {
+            if (!(o instanceof ByteKeyed k)) return false;
+            if (width < 0) width = k.key().length;
+            else if (k.key().length != width) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package sortx.core.sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Guarda os {@code k} menores elementos vistos segundo o comparador, em um heap de máximo de
+ * tamanho fixo: O(log k) por elemento e memória O(k). Em empates o elemento que já estava fica,
+ * então oferecer na ordem de chegada mantém o resultado estável.
+ */
+public final class BoundedHeap<E> {
+    private final Object[] heap;
+    private final Comparator<? super E> comparator;
+    private int size;
+
+    public BoundedHeap(int k, Comparator<? super E> comparator) {
+        if (k < 0) throw new IllegalArgumentException("k negativo: " + k);
+        this.heap = new Object[k];
+        this.comparator = comparator;
+    }
+
+    /** Oferece um elemento; devolve false se ele ficou de fora (não é melhor que o pior guardado). */
+    public boolean offer(E e) {
+        if (heap.length == 0) return false;
+        if (size < heap.length) {
+            heap[size] = e;
+            siftUp(size++);
+            return true;
+        }
+        if (comparator.compare(e, at(0)) >= 0) return false;
+        heap[0] = e;
+        siftDown(0);
+        return true;
+    }
+
+    public int size() { return size; }
+
+    /** Elementos guardados, do menor para o maior. */
+    @SuppressWarnings("unchecked")
+    public List<E> sorted() {
+        List<E> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add((E) heap[i]);
+        out.sort(comparator);
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E at(int i) { return (E) heap[i]; }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (comparator.compare(at(i), at(p)) <= 0) return;
+            swap(i, p);
+            i = p;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1, m = i;
+            if (l < size && comparator.compare(at(l), at(m)) > 0) m = l;
+            if (l + 1 < size && comparator.compare(at(l + 1), at(m)) > 0) m = l + 1;
+            if (m == i) return;
+            swap(i, m);
+            i = m;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object t = heap[a]; heap[a] = heap[b]; heap[b] = t;
+    }
+}
@@ -1,28 +1,50 @@
 package sortx.core.sort;
 
 import java.util.Comparator;
-import java.util.List;
 
 public class BubbleSortStrategy<T> implements SortStrategy<T> {
     @Override
     public String name() { return "BubbleSort"; }
 
     @Override
-    public void sort(List<T> list, Comparator<? super T> comparator) {
-        if (list == null || list.size() < 2) return;
+    public boolean quadratic() { return true; }
+
+    @Override
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        boolean swapped;
+        int n = to;
+        do {
+            Cancellation.checkpoint();
+            swapped = false;
+            for (int i = from + 1; i < n; i++) {
+                if (comparator.compare(a[i - 1], a[i]) > 0) {
+                    T tmp = a[i - 1];
+                    a[i - 1] = a[i];
+                    a[i] = tmp;
+                    swapped = true;
+                }
+            }
+            n--;
+        } while (swapped);
+    }
+
+    @Override
+    public int[] argsort(long[] keys) {
+        long[] k = keys.clone();
+        int[] ix = LongArgsort.identity(k.length);
         boolean swapped;
-        int n = list.size();
+        int n = k.length;
         do {
+            Cancellation.checkpoint();
             swapped = false;
             for (int i = 1; i < n; i++) {
-                if (comparator.compare(list.get(i - 1), list.get(i)) > 0) {
-                    T tmp = list.get(i - 1);
-                    list.set(i - 1, list.get(i));
-                    list.set(i, tmp);
+                if (k[i - 1] > k[i]) {
+                    LongArgsort.swap(k, ix, i - 1, i);
                     swapped = true;
                 }
             }
             n--;
         } while (swapped);
+        return ix;
     }
 }
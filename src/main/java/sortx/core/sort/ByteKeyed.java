@@ -0,0 +1,6 @@
+package sortx.core.sort;
+
+/** Elemento que já carrega sua chave de ordenação em bytes (ordem = comparação sem sinal). */
+public interface ByteKeyed {
+    byte[] key();
+}
@@ -0,0 +1,21 @@
+package sortx.core.sort;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cancelamento cooperativo: cancelar um job interrompe a thread que o executa, e os laços longos
+ * (partições, passadas de merge, leitura de linhas) chamam {@link #checkpoint()} para parar ali.
+ */
+public final class Cancellation {
+    private Cancellation() { }
+
+    /** Lança {@link CancellationException} se a thread atual foi interrompida. */
+    public static void checkpoint() {
+        checkpoint(Thread.currentThread());
+    }
+
+    /** Mesmo teste para a thread dona do trabalho (tarefas em pools, como o fork/join). */
+    public static void checkpoint(Thread owner) {
+        if (owner.isInterrupted()) throw new CancellationException("Operação cancelada");
+    }
+}
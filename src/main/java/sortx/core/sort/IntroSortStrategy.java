@@ -0,0 +1,188 @@
+package sortx.core.sort;
+
+import java.util.Comparator;
+
+/**
+ * Introsort em {@code Object[]}: pivô pela mediana de 3 (ninther em faixas grandes), partição em
+ * 3 vias de Bentley-McIlroy (chaves repetidas saem de uma vez), heapsort quando a profundidade passa de 2·log2(n),
+ * recursão só na parte menor e insertion sort em faixas pequenas. O(n log n) garantido; não é estável.
+ */
+public class IntroSortStrategy<T> implements SortStrategy<T> {
+    private static final int INSERTION_CUTOFF = 16;
+    private static final int NINTHER_THRESHOLD = 128;
+
+    @Override
+    public String name() { return "IntroSort"; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        if (to - from < 2) return;
+        Comparator<Object> comp = (Comparator<Object>) comparator;
+        introsort(a, from, to, 2 * (31 - Integer.numberOfLeadingZeros(to - from)), comp);
+    }
+
+    @Override
+    public int[] argsort(long[] keys) {
+        long[] k = keys.clone();
+        int[] ix = LongArgsort.identity(k.length);
+        if (k.length > 1) introsort(k, ix, 0, k.length, 2 * (31 - Integer.numberOfLeadingZeros(k.length)));
+        return ix;
+    }
+
+    // Versão primitiva sobre pares (chave, índice): como são todos distintos, a partição é de 2 vias
+    private static void introsort(long[] k, int[] ix, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            Cancellation.checkpoint();
+            if (depth-- == 0) {
+                heapsort(k, ix, lo, hi);
+                return;
+            }
+            LongArgsort.swap(k, ix, lo, pivotIndex(k, ix, lo, hi));
+            int i = lo, j = hi;
+            while (true) {
+                while (LongArgsort.less(k, ix, ++i, lo)) if (i == hi - 1) break;
+                while (LongArgsort.less(k, ix, lo, --j)) if (j == lo) break;
+                if (i >= j) break;
+                LongArgsort.swap(k, ix, i, j);
+            }
+            LongArgsort.swap(k, ix, lo, j);
+            // [lo, j) < pivô em j < (j, hi)
+            if (j - lo < hi - j - 1) {
+                introsort(k, ix, lo, j, depth);
+                lo = j + 1;
+            } else {
+                introsort(k, ix, j + 1, hi, depth);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i < hi; i++) {
+            for (int j = i; j > lo && LongArgsort.less(k, ix, j, j - 1); j--) LongArgsort.swap(k, ix, j, j - 1);
+        }
+    }
+
+    private static int pivotIndex(long[] k, int[] ix, int lo, int hi) {
+        int n = hi - lo, mid = lo + n / 2;
+        if (n < NINTHER_THRESHOLD) return median3(k, ix, lo, mid, hi - 1);
+        int s = n / 8;
+        return median3(k, ix,
+                median3(k, ix, lo, lo + s, lo + 2 * s),
+                median3(k, ix, mid - s, mid, mid + s),
+                median3(k, ix, hi - 1 - 2 * s, hi - 1 - s, hi - 1));
+    }
+
+    private static int median3(long[] k, int[] ix, int i, int j, int l) {
+        boolean ij = LongArgsort.less(k, ix, i, j);
+        boolean jl = LongArgsort.less(k, ix, j, l);
+        boolean il = LongArgsort.less(k, ix, i, l);
+        return ij ? (jl ? j : il ? l : i) : (il ? i : jl ? l : j);
+    }
+
+    private static void heapsort(long[] k, int[] ix, int lo, int hi) {
+        int n = hi - lo;
+        for (int c = n / 2 - 1; c >= 0; c--) siftDown(k, ix, lo, c, n);
+        for (int end = n - 1; end > 0; end--) {
+            LongArgsort.swap(k, ix, lo, lo + end);
+            siftDown(k, ix, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] k, int[] ix, int base, int p, int n) {
+        while (2 * p + 1 < n) {
+            int c = 2 * p + 1;
+            if (c + 1 < n && LongArgsort.less(k, ix, base + c, base + c + 1)) c++;
+            if (!LongArgsort.less(k, ix, base + p, base + c)) return;
+            LongArgsort.swap(k, ix, base + p, base + c);
+            p = c;
+        }
+    }
+
+    private static void introsort(Object[] a, int lo, int hi, int depth, Comparator<Object> comp) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            Cancellation.checkpoint();
+            if (depth-- == 0) {
+                heapsort(a, lo, hi, comp);
+                return;
+            }
+            // Partição em 3 vias de Bentley-McIlroy: iguais ao pivô vão para as pontas durante a
+            // varredura e depois para o meio, com poucas trocas quando as chaves são distintas
+            swap(a, lo, pivotIndex(a, lo, hi, comp));
+            Object pivot = a[lo];
+            int i = lo, j = hi, p = lo, q = hi;
+            while (true) {
+                while (comp.compare(a[++i], pivot) < 0) if (i == hi - 1) break;
+                while (comp.compare(pivot, a[--j]) < 0) if (j == lo) break;
+                if (i == j && comp.compare(a[i], pivot) == 0) swap(a, ++p, i);
+                if (i >= j) break;
+                swap(a, i, j);
+                if (comp.compare(a[i], pivot) == 0) swap(a, ++p, i);
+                if (comp.compare(a[j], pivot) == 0) swap(a, --q, j);
+            }
+            i = j + 1;
+            for (int k = lo; k <= p; k++) swap(a, k, j--);
+            for (int k = hi - 1; k >= q; k--) swap(a, k, i++);
+            int lt = j + 1, gt = i - 1;
+            // [lo, lt) < pivô, [lt, gt] = pivô, (gt, hi) > pivô
+            if (lt - lo < hi - gt - 1) {
+                introsort(a, lo, lt, depth, comp);
+                lo = gt + 1;
+            } else {
+                introsort(a, gt + 1, hi, depth, comp);
+                hi = lt;
+            }
+        }
+        insertion(a, lo, hi, comp);
+    }
+
+    private static int pivotIndex(Object[] a, int lo, int hi, Comparator<Object> comp) {
+        int n = hi - lo, mid = lo + n / 2;
+        if (n < NINTHER_THRESHOLD) return median3(a, lo, mid, hi - 1, comp);
+        int s = n / 8;
+        return median3(a,
+                median3(a, lo, lo + s, lo + 2 * s, comp),
+                median3(a, mid - s, mid, mid + s, comp),
+                median3(a, hi - 1 - 2 * s, hi - 1 - s, hi - 1, comp), comp);
+    }
+
+    private static int median3(Object[] a, int i, int j, int k, Comparator<Object> comp) {
+        boolean ij = comp.compare(a[i], a[j]) < 0;
+        boolean jk = comp.compare(a[j], a[k]) < 0;
+        boolean ik = comp.compare(a[i], a[k]) < 0;
+        return ij ? (jk ? j : ik ? k : i) : (ik ? i : jk ? k : j);
+    }
+
+    private static void heapsort(Object[] a, int lo, int hi, Comparator<Object> comp) {
+        int n = hi - lo;
+        for (int k = n / 2 - 1; k >= 0; k--) siftDown(a, lo, k, n, comp);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end, comp);
+        }
+    }
+
+    private static void siftDown(Object[] a, int base, int k, int n, Comparator<Object> comp) {
+        while (2 * k + 1 < n) {
+            int c = 2 * k + 1;
+            if (c + 1 < n && comp.compare(a[base + c], a[base + c + 1]) < 0) c++;
+            if (comp.compare(a[base + k], a[base + c]) >= 0) return;
+            swap(a, base + k, base + c);
+            k = c;
+        }
+    }
+
+    private static void insertion(Object[] a, int lo, int hi, Comparator<Object> comp) {
+        for (int i = lo + 1; i < hi; i++) {
+            Object x = a[i];
+            int j = i - 1;
+            while (j >= lo && comp.compare(a[j], x) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = x;
+        }
+    }
+
+    private static void swap(Object[] a, int i, int j) {
+        Object t = a[i]; a[i] = a[j]; a[j] = t;
+    }
+}
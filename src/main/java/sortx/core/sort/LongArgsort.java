@@ -0,0 +1,76 @@
+package sortx.core.sort;
+
+/**
+ * Peças comuns de {@link SortStrategy#argsort(long[])}: cada algoritmo reordena juntos uma cópia
+ * das chaves e o array de índices ({@code k[i]} é a chave do índice {@code ix[i]}), sem caixas nem
+ * comparadores. Os algoritmos instáveis comparam pelo par (chave, índice original), então todas as
+ * estratégias devolvem a mesma permutação.
+ */
+final class LongArgsort {
+    private static final int INSERTION_CUTOFF = 32;
+
+    private LongArgsort() { }
+
+    static int[] identity(int n) {
+        int[] ix = new int[n];
+        for (int i = 0; i < n; i++) ix[i] = i;
+        return ix;
+    }
+
+    /** O par (chave, índice) da posição i vem antes do da posição j. */
+    static boolean less(long[] k, int[] ix, int i, int j) {
+        return k[i] < k[j] || k[i] == k[j] && ix[i] < ix[j];
+    }
+
+    static void swap(long[] k, int[] ix, int i, int j) {
+        long tk = k[i]; k[i] = k[j]; k[j] = tk;
+        int ti = ix[i]; ix[i] = ix[j]; ix[j] = ti;
+    }
+
+    /** Merge sort estável de {@code [lo, hi)}; {@code tk}/{@code tix} são a área de trabalho (mesmos índices). */
+    static void mergeSort(long[] k, int[] ix, long[] tk, int[] tix, int lo, int hi) {
+        if (hi - lo <= INSERTION_CUTOFF) {
+            insertion(k, ix, lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(k, ix, tk, tix, lo, mid);
+        mergeSort(k, ix, tk, tix, mid, hi);
+        if (k[mid - 1] <= k[mid]) return;
+        Cancellation.checkpoint();
+        System.arraycopy(k, lo, tk, lo, hi - lo);
+        System.arraycopy(ix, lo, tix, lo, hi - lo);
+        merge(tk, tix, lo, mid, mid, hi, k, ix, lo);
+    }
+
+    /** Intercala {@code [i, l1)} e {@code [j, r1)} de sk/sx em dk/dx a partir de d; empates ficam com o lado esquerdo. */
+    static void merge(long[] sk, int[] sx, int i, int l1, int j, int r1, long[] dk, int[] dx, int d) {
+        while (i < l1 && j < r1) {
+            if (sk[j] < sk[i]) { dk[d] = sk[j]; dx[d++] = sx[j++]; }
+            else { dk[d] = sk[i]; dx[d++] = sx[i++]; }
+        }
+        if (i < l1) {
+            System.arraycopy(sk, i, dk, d, l1 - i);
+            System.arraycopy(sx, i, dx, d, l1 - i);
+        } else if (j < r1) {
+            System.arraycopy(sk, j, dk, d, r1 - j);
+            System.arraycopy(sx, j, dx, d, r1 - j);
+        }
+    }
+
+    /** Insertion sort estável de {@code [lo, hi)} pela chave. */
+    static void insertion(long[] k, int[] ix, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long xk = k[i];
+            int xi = ix[i];
+            int j = i - 1;
+            while (j >= lo && k[j] > xk) {
+                k[j + 1] = k[j];
+                ix[j + 1] = ix[j];
+                j--;
+            }
+            k[j + 1] = xk;
+            ix[j + 1] = xi;
+        }
+    }
+}
@@ -1,41 +1,42 @@
 package sortx.core.sort;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.List;
 
 public class MergeSortStrategy<T> implements SortStrategy<T> {
     @Override
     public String name() { return "MergeSort"; }
 
     @Override
-    public void sort(List<T> list, Comparator<? super T> comparator) {
-        if (list == null || list.size() < 2) return;
-        List<T> aux = new ArrayList<>(list);
-        mergesort(list, aux, 0, list.size() - 1, comparator);
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        if (to - from < 2) return;
+        // Área auxiliar só do trecho ordenado: aux[k - from] espelha a[k]
+        T[] aux = Arrays.copyOfRange(a, from, to);
+        mergesort(a, aux, from, from, to - 1, comparator);
     }
 
-    private void mergesort(List<T> a, List<T> aux, int lo, int hi, Comparator<? super T> comp) {
+    private void mergesort(T[] a, T[] aux, int base, int lo, int hi, Comparator<? super T> comp) {
         if (lo >= hi) return;
         int mid = lo + (hi - lo) / 2;
-        mergesort(a, aux, lo, mid, comp);
-        mergesort(a, aux, mid + 1, hi, comp);
-        if (comp.compare(a.get(mid), a.get(mid + 1)) <= 0) return;
-        merge(a, aux, lo, mid, hi, comp);
+        mergesort(a, aux, base, lo, mid, comp);
+        mergesort(a, aux, base, mid + 1, hi, comp);
+        if (comp.compare(a[mid], a[mid + 1]) <= 0) return;
+        Cancellation.checkpoint();
+        merge(a, aux, base, lo, mid, hi, comp);
     }
 
-    private void merge(List<T> a, List<T> aux, int lo, int mid, int hi, Comparator<? super T> comp) {
-        for (int k = lo; k <= hi; k++) aux.set(k, a.get(k));
-        int i = lo, j = mid + 1;
+    private void merge(T[] a, T[] aux, int base, int lo, int mid, int hi, Comparator<? super T> comp) {
+        System.arraycopy(a, lo, aux, lo - base, hi - lo + 1);
+        int i = lo - base, j = mid + 1 - base, m = mid - base, h = hi - base;
         for (int k = lo; k <= hi; k++) {
-            if (i > mid) {
-                a.set(k, aux.get(j++));
-            } else if (j > hi) {
-                a.set(k, aux.get(i++));
-            } else if (comp.compare(aux.get(j), aux.get(i)) < 0) {
-                a.set(k, aux.get(j++));
+            if (i > m) {
+                a[k] = aux[j++];
+            } else if (j > h) {
+                a[k] = aux[i++];
+            } else if (comp.compare(aux[j], aux[i]) < 0) {
+                a[k] = aux[j++];
             } else {
-                a.set(k, aux.get(i++));
+                a[k] = aux[i++];
             }
         }
     }
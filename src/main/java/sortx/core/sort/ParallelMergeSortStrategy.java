@@ -0,0 +1,218 @@
+package sortx.core.sort;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Merge sort estável em {@code Object[]} com fork/join: metades grandes são ordenadas em paralelo
+ * e intercaladas por um merge também paralelo (divide a maior metade ao meio e busca o ponto de
+ * corte na outra por busca binária). Faixas pequenas usam insertion sort.
+ */
+public class ParallelMergeSortStrategy<T> implements SortStrategy<T> {
+    private static final int INSERTION_CUTOFF = 32;
+    private static final int SEQUENTIAL_CUTOFF = Integer.getInteger("sortx.parallelSortGrain", 1 << 13);
+
+    @Override
+    public String name() { return "ParallelMergeSort"; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        if (to - from < 2) return;
+        Comparator<Object> comp = (Comparator<Object>) comparator;
+        ForkJoinPool.commonPool().invoke(new SortTask(a, new Object[to - from], from, from, to, comp, Thread.currentThread()));
+    }
+
+    @Override
+    public int[] argsort(long[] keys) {
+        int n = keys.length;
+        long[] k = keys.clone();
+        int[] ix = LongArgsort.identity(n);
+        if (n > 1) ForkJoinPool.commonPool().invoke(new LongSortTask(k, ix, new long[n], new int[n], 0, n, Thread.currentThread()));
+        return ix;
+    }
+
+    // Versão primitiva de SortTask: k/ix ordenados juntos, tk/tix como área de trabalho (mesmos índices)
+    @SuppressWarnings("serial")
+    private static final class LongSortTask extends RecursiveAction {
+        private final long[] k, tk;
+        private final int[] ix, tix;
+        private final int lo, hi;
+        private final Thread owner;
+
+        LongSortTask(long[] k, int[] ix, long[] tk, int[] tix, int lo, int hi, Thread owner) {
+            this.k = k; this.ix = ix; this.tk = tk; this.tix = tix; this.lo = lo; this.hi = hi; this.owner = owner;
+        }
+
+        @Override
+        protected void compute() {
+            Cancellation.checkpoint(owner);
+            if (hi - lo <= SEQUENTIAL_CUTOFF) {
+                LongArgsort.mergeSort(k, ix, tk, tix, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new LongSortTask(k, ix, tk, tix, lo, mid, owner), new LongSortTask(k, ix, tk, tix, mid, hi, owner));
+            if (k[mid - 1] <= k[mid]) return;
+            System.arraycopy(k, lo, tk, lo, hi - lo);
+            System.arraycopy(ix, lo, tix, lo, hi - lo);
+            new LongMergeTask(tk, tix, lo, mid, mid, hi, k, ix, lo, owner).compute();
+        }
+    }
+
+    // Versão primitiva de MergeTask
+    @SuppressWarnings("serial")
+    private static final class LongMergeTask extends RecursiveAction {
+        private final long[] sk, dk;
+        private final int[] sx, dx;
+        private final int l0, l1, r0, r1, d;
+        private final Thread owner;
+
+        LongMergeTask(long[] sk, int[] sx, int l0, int l1, int r0, int r1, long[] dk, int[] dx, int d, Thread owner) {
+            this.sk = sk; this.sx = sx; this.l0 = l0; this.l1 = l1; this.r0 = r0; this.r1 = r1;
+            this.dk = dk; this.dx = dx; this.d = d; this.owner = owner;
+        }
+
+        @Override
+        protected void compute() {
+            Cancellation.checkpoint(owner);
+            int ln = l1 - l0, rn = r1 - r0;
+            if (ln + rn <= SEQUENTIAL_CUTOFF) {
+                LongArgsort.merge(sk, sx, l0, l1, r0, r1, dk, dx, d);
+                return;
+            }
+            int lm, rm;
+            if (ln >= rn) {
+                lm = (l0 + l1) >>> 1;
+                rm = bound(sk, r0, r1, sk[lm], false);
+            } else {
+                rm = (r0 + r1) >>> 1;
+                lm = bound(sk, l0, l1, sk[rm], true);
+            }
+            int dm = d + (lm - l0) + (rm - r0);
+            invokeAll(new LongMergeTask(sk, sx, l0, lm, r0, rm, dk, dx, d, owner),
+                      new LongMergeTask(sk, sx, lm, l1, rm, r1, dk, dx, dm, owner));
+        }
+    }
+
+    // Primeira posição de [lo, hi) com chave > key (upper) ou >= key
+    private static int bound(long[] k, int lo, int hi, long key, boolean upper) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (k[m] < key || upper && k[m] == key) lo = m + 1; else hi = m;
+        }
+        return lo;
+    }
+
+    // Ordena a[lo, hi) usando aux[lo - base, hi - base) como área de trabalho; o cancelamento segue a thread que chamou sort
+    @SuppressWarnings("serial") // tarefas nunca são serializadas
+    private static final class SortTask extends RecursiveAction {
+        private final Object[] a, aux;
+        private final int base, lo, hi;
+        private final Comparator<Object> comp;
+        private final Thread owner;
+
+        SortTask(Object[] a, Object[] aux, int base, int lo, int hi, Comparator<Object> comp, Thread owner) {
+            this.a = a; this.aux = aux; this.base = base; this.lo = lo; this.hi = hi; this.comp = comp; this.owner = owner;
+        }
+
+        @Override
+        protected void compute() {
+            Cancellation.checkpoint(owner);
+            if (hi - lo <= SEQUENTIAL_CUTOFF) {
+                sequential(a, aux, base, lo, hi, comp);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(a, aux, base, lo, mid, comp, owner), new SortTask(a, aux, base, mid, hi, comp, owner));
+            if (comp.compare(a[mid - 1], a[mid]) <= 0) return;
+            System.arraycopy(a, lo, aux, lo - base, hi - lo);
+            new MergeTask(aux, lo - base, mid - base, mid - base, hi - base, a, lo, comp, owner).compute();
+        }
+    }
+
+    // Intercala src[l0, l1) e src[r0, r1) em dst a partir de d; empates ficam com o lado esquerdo
+    @SuppressWarnings("serial")
+    private static final class MergeTask extends RecursiveAction {
+        private final Object[] src, dst;
+        private final int l0, l1, r0, r1, d;
+        private final Comparator<Object> comp;
+        private final Thread owner;
+
+        MergeTask(Object[] src, int l0, int l1, int r0, int r1, Object[] dst, int d, Comparator<Object> comp, Thread owner) {
+            this.src = src; this.l0 = l0; this.l1 = l1; this.r0 = r0; this.r1 = r1;
+            this.dst = dst; this.d = d; this.comp = comp; this.owner = owner;
+        }
+
+        @Override
+        protected void compute() {
+            Cancellation.checkpoint(owner);
+            int ln = l1 - l0, rn = r1 - r0;
+            if (ln + rn <= SEQUENTIAL_CUTOFF) {
+                merge(src, l0, l1, r0, r1, dst, d, comp);
+                return;
+            }
+            int lm, rm;
+            if (ln >= rn) {
+                lm = (l0 + l1) >>> 1;
+                rm = lowerBound(src, r0, r1, src[lm], comp);  // à direita só o que é < pivô vem antes
+            } else {
+                rm = (r0 + r1) >>> 1;
+                lm = upperBound(src, l0, l1, src[rm], comp);  // à esquerda o que é <= pivô vem antes
+            }
+            int dm = d + (lm - l0) + (rm - r0);
+            invokeAll(new MergeTask(src, l0, lm, r0, rm, dst, d, comp, owner),
+                      new MergeTask(src, lm, l1, rm, r1, dst, dm, comp, owner));
+        }
+    }
+
+    private static void sequential(Object[] a, Object[] aux, int base, int lo, int hi, Comparator<Object> comp) {
+        if (hi - lo <= INSERTION_CUTOFF) {
+            insertion(a, lo, hi, comp);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sequential(a, aux, base, lo, mid, comp);
+        sequential(a, aux, base, mid, hi, comp);
+        if (comp.compare(a[mid - 1], a[mid]) <= 0) return;
+        System.arraycopy(a, lo, aux, lo - base, hi - lo);
+        merge(aux, lo - base, mid - base, mid - base, hi - base, a, lo, comp);
+    }
+
+    private static void merge(Object[] src, int i, int l1, int j, int r1, Object[] dst, int k, Comparator<Object> comp) {
+        while (i < l1 && j < r1) {
+            dst[k++] = comp.compare(src[j], src[i]) < 0 ? src[j++] : src[i++];
+        }
+        if (i < l1) System.arraycopy(src, i, dst, k, l1 - i);
+        else if (j < r1) System.arraycopy(src, j, dst, k, r1 - j);
+    }
+
+    private static void insertion(Object[] a, int lo, int hi, Comparator<Object> comp) {
+        for (int i = lo + 1; i < hi; i++) {
+            Object x = a[i];
+            int j = i - 1;
+            while (j >= lo && comp.compare(a[j], x) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = x;
+        }
+    }
+
+    private static int lowerBound(Object[] a, int lo, int hi, Object key, Comparator<Object> comp) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (comp.compare(a[m], key) < 0) lo = m + 1; else hi = m;
+        }
+        return lo;
+    }
+
+    private static int upperBound(Object[] a, int lo, int hi, Object key, Comparator<Object> comp) {
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (comp.compare(a[m], key) <= 0) lo = m + 1; else hi = m;
+        }
+        return lo;
+    }
+}
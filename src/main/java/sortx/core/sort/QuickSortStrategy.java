@@ -1,7 +1,6 @@
 package sortx.core.sort;
 
 import java.util.Comparator;
-import java.util.List;
 
 public class QuickSortStrategy<T> implements SortStrategy<T> {
 
@@ -9,17 +8,18 @@ public class QuickSortStrategy<T> implements SortStrategy<T> {
     public String name() { return "QuickSort"; }
 
     @Override
-    public void sort(List<T> list, Comparator<? super T> comparator) {
-        if (list == null || list.size() < 2) return;
-        quicksort(list, 0, list.size() - 1, comparator);
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        if (to - from < 2) return;
+        quicksort(a, from, to - 1, comparator);
     }
 
-    private void quicksort(List<T> a, int low, int high, Comparator<? super T> comp) {
+    private void quicksort(T[] a, int low, int high, Comparator<? super T> comp) {
+        Cancellation.checkpoint();
         int i = low, j = high;
-        T pivot = a.get(low + (high - low) / 2);
+        T pivot = a[low + (high - low) / 2];
         while (i <= j) {
-            while (comp.compare(a.get(i), pivot) < 0) i++;
-            while (comp.compare(a.get(j), pivot) > 0) j--;
+            while (comp.compare(a[i], pivot) < 0) i++;
+            while (comp.compare(a[j], pivot) > 0) j--;
             if (i <= j) {
                 swap(a, i, j);
                 i++; j--;
@@ -29,9 +29,35 @@ public class QuickSortStrategy<T> implements SortStrategy<T> {
         if (i < high) quicksort(a, i, high, comp);
     }
 
-    private void swap(List<T> a, int i, int j) {
-        T tmp = a.get(i);
-        a.set(i, a.get(j));
-        a.set(j, tmp);
+    @Override
+    public int[] argsort(long[] keys) {
+        long[] k = keys.clone();
+        int[] ix = LongArgsort.identity(k.length);
+        if (k.length > 1) quicksort(k, ix, 0, k.length - 1);
+        return ix;
+    }
+
+    // Mesma partição, comparando pares (chave, índice)
+    private static void quicksort(long[] k, int[] ix, int low, int high) {
+        Cancellation.checkpoint();
+        int i = low, j = high, m = low + (high - low) / 2;
+        long pk = k[m];
+        int pi = ix[m];
+        while (i <= j) {
+            while (k[i] < pk || k[i] == pk && ix[i] < pi) i++;
+            while (k[j] > pk || k[j] == pk && ix[j] > pi) j--;
+            if (i <= j) {
+                LongArgsort.swap(k, ix, i, j);
+                i++; j--;
+            }
+        }
+        if (low < j) quicksort(k, ix, low, j);
+        if (i < high) quicksort(k, ix, i, high);
+    }
+
+    private void swap(T[] a, int i, int j) {
+        T tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
     }
 }
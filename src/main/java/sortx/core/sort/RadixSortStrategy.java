@@ -0,0 +1,156 @@
+package sortx.core.sort;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Radix sort estável sobre chaves de bytes (ordem sem sinal), devolvendo uma permutação de índices.
+ * Chaves de mesma largura (regras NUMBER/DATE/BOOLEAN) usam LSD byte a byte, pulando posições em
+ * que todas as chaves têm o mesmo byte; chaves de largura variável (STRING) usam MSD com pilha
+ * explícita e insertion sort em baldes pequenos. O tempo é linear no total de bytes das chaves.
+ * <p>
+ * Como {@link SortStrategy}, só ordena por chave arrays de {@link ByteKeyed} (o comparador é
+ * então ignorado, pois é a ordem das próprias chaves); para outros elementos usa o
+ * {@link Arrays#sort} estável da biblioteca. Chaves {@code long} usam LSD de 8 passadas de 8 bits.
+ */
+public class RadixSortStrategy<T> implements SortStrategy<T> {
+    private static final int MSD_INSERTION_CUTOFF = 32;
+
+    @Override
+    public String name() { return "RadixSort"; }
+
+    @Override
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        if (to - from < 2) return;
+        byte[][] keys = new byte[to - from][];
+        for (int i = from; i < to; i++) {
+            if (!(a[i] instanceof ByteKeyed k)) {
+                Arrays.sort(a, from, to, comparator);
+                return;
+            }
+            keys[i - from] = k.key();
+        }
+        int[] order = argsort(keys);
+        T[] items = Arrays.copyOfRange(a, from, to);
+        for (int i = 0; i < order.length; i++) a[from + i] = items[order[i]];
+    }
+
+    @Override
+    public int[] argsort(long[] keys) {
+        int n = keys.length;
+        int[] perm = new int[n], aux = new int[n];
+        for (int i = 0; i < n; i++) perm[i] = i;
+        if (n < 2) return perm;
+        // Bit de sinal invertido: a ordem sem sinal dos bytes passa a ser a ordem com sinal
+        int[][] counts = new int[8][256];
+        for (long k : keys) {
+            long u = k ^ Long.MIN_VALUE;
+            for (int d = 0; d < 8; d++) counts[d][(int) (u >>> (8 * d)) & 0xFF]++;
+        }
+        for (int d = 0; d < 8; d++) {
+            int[] c = counts[d];
+            int shift = 8 * d;
+            if (c[(int) ((keys[0] ^ Long.MIN_VALUE) >>> shift) & 0xFF] == n) continue;
+            Cancellation.checkpoint();
+            int sum = 0;
+            for (int b = 0; b < 256; b++) { int t = c[b]; c[b] = sum; sum += t; }
+            for (int i = 0; i < n; i++) {
+                int row = perm[i];
+                aux[c[(int) ((keys[row] ^ Long.MIN_VALUE) >>> shift) & 0xFF]++] = row;
+            }
+            int[] t = perm; perm = aux; aux = t;
+        }
+        return perm;
+    }
+
+    /** Índices de {@code keys} em ordem crescente de chave; empates mantêm a ordem original. */
+    public static int[] argsort(byte[][] keys) {
+        int n = keys.length;
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) perm[i] = i;
+        if (n < 2) return perm;
+        int width = keys[0].length;
+        boolean fixed = true;
+        for (byte[] k : keys) {
+            if (k.length != width) { fixed = false; break; }
+        }
+        return fixed ? lsd(keys, perm, width) : msd(keys, perm);
+    }
+
+    private static int[] lsd(byte[][] keys, int[] perm, int width) {
+        int n = keys.length;
+        // Histogramas de todas as posições em uma única leitura das chaves
+        int[][] counts = new int[width][256];
+        for (byte[] k : keys) {
+            for (int d = 0; d < width; d++) counts[d][k[d] & 0xFF]++;
+        }
+        int[] aux = new int[n];
+        for (int d = width - 1; d >= 0; d--) {
+            int[] c = counts[d];
+            if (c[keys[0][d] & 0xFF] == n) continue; // todas iguais nesta posição
+            Cancellation.checkpoint();
+            int sum = 0;
+            for (int b = 0; b < 256; b++) { int t = c[b]; c[b] = sum; sum += t; }
+            for (int i = 0; i < n; i++) {
+                int row = perm[i];
+                aux[c[keys[row][d] & 0xFF]++] = row;
+            }
+            int[] t = perm; perm = aux; aux = t;
+        }
+        return perm;
+    }
+
+    private static int[] msd(byte[][] keys, int[] perm) {
+        int[] aux = new int[perm.length];
+        ArrayDeque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] { 0, perm.length, 0 });
+        int[] count = new int[258];
+        while (!stack.isEmpty()) {
+            int[] frame = stack.pop();
+            int lo = frame[0], hi = frame[1], d = frame[2];
+            if (hi - lo <= MSD_INSERTION_CUTOFF) {
+                insertion(keys, perm, lo, hi, d);
+                continue;
+            }
+            Cancellation.checkpoint();
+            // Balde 0: chaves que terminaram antes de d (vêm primeiro); balde b+1: byte b
+            Arrays.fill(count, 0);
+            for (int i = lo; i < hi; i++) count[digit(keys[perm[i]], d) + 2]++;
+            for (int b = 0; b < 257; b++) count[b + 1] += count[b];
+            for (int i = lo; i < hi; i++) {
+                int row = perm[i];
+                aux[lo + count[digit(keys[row], d) + 1]++] = row;
+            }
+            System.arraycopy(aux, lo, perm, lo, hi - lo);
+            // count[b] agora é o fim do balde b; o balde 0 (chaves esgotadas) já está em ordem
+            for (int b = 1; b < 257; b++) {
+                int start = lo + count[b - 1], end = lo + count[b];
+                if (end - start > 1) stack.push(new int[] { start, end, d + 1 });
+            }
+        }
+        return perm;
+    }
+
+    private static int digit(byte[] key, int d) {
+        return d < key.length ? key[d] & 0xFF : -1;
+    }
+
+    // Insertion sort estável comparando a partir do byte d (os anteriores são iguais no balde)
+    private static void insertion(byte[][] keys, int[] perm, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            int row = perm[i];
+            byte[] k = keys[row];
+            int j = i - 1;
+            while (j >= lo && compareFrom(keys[perm[j]], k, d) > 0) {
+                perm[j + 1] = perm[j];
+                j--;
+            }
+            perm[j + 1] = row;
+        }
+    }
+
+    private static int compareFrom(byte[] a, byte[] b, int d) {
+        return Arrays.compareUnsigned(a, Math.min(d, a.length), a.length, b, Math.min(d, b.length), b.length);
+    }
+}
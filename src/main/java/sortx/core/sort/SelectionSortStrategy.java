@@ -1,26 +1,42 @@
 package sortx.core.sort;
 
 import java.util.Comparator;
-import java.util.List;
 
 public class SelectionSortStrategy<T> implements SortStrategy<T> {
     @Override
     public String name() { return "SelectionSort"; }
 
     @Override
-    public void sort(List<T> list, Comparator<? super T> comparator) {
-        if (list == null || list.size() < 2) return;
-        int n = list.size();
-        for (int i = 0; i < n - 1; i++) {
+    public boolean quadratic() { return true; }
+
+    @Override
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        for (int i = from; i < to - 1; i++) {
+            Cancellation.checkpoint();
             int minIdx = i;
-            for (int j = i + 1; j < n; j++) {
-                if (comparator.compare(list.get(j), list.get(minIdx)) < 0) minIdx = j;
+            for (int j = i + 1; j < to; j++) {
+                if (comparator.compare(a[j], a[minIdx]) < 0) minIdx = j;
             }
             if (minIdx != i) {
-                T tmp = list.get(i);
-                list.set(i, list.get(minIdx));
-                list.set(minIdx, tmp);
+                T tmp = a[i];
+                a[i] = a[minIdx];
+                a[minIdx] = tmp;
+            }
+        }
+    }
+
+    @Override
+    public int[] argsort(long[] keys) {
+        long[] k = keys.clone();
+        int[] ix = LongArgsort.identity(k.length);
+        for (int i = 0; i < k.length - 1; i++) {
+            Cancellation.checkpoint();
+            int minIdx = i;
+            for (int j = i + 1; j < k.length; j++) {
+                if (LongArgsort.less(k, ix, j, minIdx)) minIdx = j;
             }
+            if (minIdx != i) LongArgsort.swap(k, ix, i, minIdx);
         }
+        return ix;
     }
 }
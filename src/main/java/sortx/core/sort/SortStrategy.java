@@ -2,8 +2,40 @@ package sortx.core.sort;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 
 public interface SortStrategy<T> {
     String name();
-    void sort(List<T> list, Comparator<? super T> comparator);
+
+    /** Ordena {@code a[from, to)} no próprio array; é o caminho principal de todos os algoritmos. */
+    void sort(T[] a, int from, int to, Comparator<? super T> comparator);
+
+    /** Adaptador para listas: copia para um array, ordena e grava de volta. */
+    @SuppressWarnings("unchecked")
+    default void sort(List<T> list, Comparator<? super T> comparator) {
+        if (list == null || list.size() < 2) return;
+        T[] a = (T[]) list.toArray();
+        sort(a, 0, a.length, comparator);
+        ListIterator<T> it = list.listIterator();
+        for (T x : a) {
+            it.next();
+            it.set(x);
+        }
+    }
+
+    /**
+     * Variante de chave primitiva: índices de {@code keys} em ordem crescente (com sinal); empates
+     * mantêm a ordem original, então o resultado é o mesmo para qualquer estratégia. Cada algoritmo
+     * tem sua versão em {@code long[]}/{@code int[]}; o padrão é um merge sort estável.
+     */
+    default int[] argsort(long[] keys) {
+        int n = keys.length;
+        long[] k = keys.clone();
+        int[] ix = LongArgsort.identity(n);
+        LongArgsort.mergeSort(k, ix, new long[n], new int[n], 0, n);
+        return ix;
+    }
+
+    /** Custo O(n²) no número de elementos (sujeito a {@link SortStrategyRegistry#checkQuadratic}). */
+    default boolean quadratic() { return false; }
 }
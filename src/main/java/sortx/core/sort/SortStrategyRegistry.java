@@ -1,28 +1,91 @@
 package sortx.core.sort;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Component
 public class SortStrategyRegistry {
+    private static final Logger log = LoggerFactory.getLogger(SortStrategyRegistry.class);
+    private static final int PROBE_SAMPLES = 4096;
+
     private final List<SortStrategy<?>> strategies = new ArrayList<>();
 
+    @SuppressWarnings("this-escape") // Auto só guarda a referência; consulta o registro ao ordenar
     public SortStrategyRegistry() {
+        strategies.add(new AutoSortStrategy<>(this));
         strategies.add(new QuickSortStrategy<>());
+        strategies.add(new IntroSortStrategy<>());
         strategies.add(new MergeSortStrategy<>());
+        strategies.add(new TimSortStrategy<>());
+        strategies.add(new ParallelMergeSortStrategy<>());
+        strategies.add(new RadixSortStrategy<>());
         strategies.add(new BubbleSortStrategy<>());
         strategies.add(new SelectionSortStrategy<>());
     }
 
+    /** Estratégia pelo nome; nome vazio ou desconhecido cai em {@code Auto} (com aviso no log). */
     @SuppressWarnings("unchecked")
-    public SortStrategy<Object> byName(String name) {
-        return (SortStrategy<Object>) strategies.stream()
-                .filter(s -> s.name().equalsIgnoreCase(name))
-                .findFirst()
-                .orElse((SortStrategy<Object>) strategies.get(0));
+    public <T> SortStrategy<T> byName(String name) {
+        for (SortStrategy<?> s : strategies) {
+            if (s.name().equalsIgnoreCase(name)) return (SortStrategy<T>) s;
+        }
+        if (name != null && !name.isBlank()) log.warn("Algoritmo desconhecido '{}', usando Auto", name);
+        return (SortStrategy<T>) strategies.get(0);
+    }
+
+    /**
+     * Barra (ou só avisa, com {@code sortx.quadraticPolicy=WARN}) algoritmos O(n²) acima de
+     * {@code sortx.quadraticMaxRows} linhas.
+     */
+    public static void checkQuadratic(SortStrategy<?> strategy, long n) {
+        if (!strategy.quadratic()) return;
+        long max = Long.getLong("sortx.quadraticMaxRows", 20_000L);
+        if (n <= max) return;
+        String msg = strategy.name() + " é O(n²) e " + n + " linhas passam do limite de " + max
+                + " (sortx.quadraticMaxRows); use Auto ou um algoritmo O(n log n)";
+        if ("WARN".equalsIgnoreCase(System.getProperty("sortx.quadraticPolicy", "REFUSE"))) {
+            log.warn(msg);
+        } else {
+            throw new IllegalArgumentException(msg);
+        }
     }
 
     public List<SortStrategy<?>> all() { return strategies; }
+
+    /**
+     * Sonda barata de pré-ordenação: compara até {@code PROBE_SAMPLES} pares adjacentes espalhados
+     * pela lista e devolve a fração que já está em ordem (1.0 = ordenada, ~0.5 = aleatória,
+     * 0.0 = invertida).
+     */
+    public static <T> double presortedness(List<T> list, Comparator<? super T> comparator) {
+        int n = list == null ? 0 : list.size();
+        if (n < 2) return 1.0;
+        int pairs = n - 1;
+        int samples = Math.min(pairs, PROBE_SAMPLES);
+        long ordered = 0;
+        for (int s = 0; s < samples; s++) {
+            int i = (int) ((long) s * pairs / samples);
+            if (comparator.compare(list.get(i), list.get(i + 1)) <= 0) ordered++;
+        }
+        return (double) ordered / samples;
+    }
+
+    /** Mesma sonda sobre chaves primitivas. */
+    public static double presortedness(long[] keys) {
+        int n = keys.length;
+        if (n < 2) return 1.0;
+        int pairs = n - 1;
+        int samples = Math.min(pairs, PROBE_SAMPLES);
+        long ordered = 0;
+        for (int s = 0; s < samples; s++) {
+            int i = (int) ((long) s * pairs / samples);
+            if (keys[i] <= keys[i + 1]) ordered++;
+        }
+        return (double) ordered / samples;
+    }
 }
@@ -0,0 +1,418 @@
+package sortx.core.sort;
+
+import java.util.Comparator;
+
+/**
+ * Merge natural adaptativo no estilo TimSort: detecta runs já ordenados (descendentes são
+ * invertidos), estende runs curtos até {@code minRun} com insertion sort binário, mantém a pilha de
+ * runs balanceada e intercala com galope quando um dos lados vence várias vezes seguidas. Dados já
+ * (quase) ordenados custam perto de O(n); o pior caso é O(n log n). Estável.
+ */
+public class TimSortStrategy<T> implements SortStrategy<T> {
+    private static final int MIN_MERGE = 32;
+    private static final int MIN_GALLOP = 7;
+
+    @Override
+    public String name() { return "TimSort"; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(T[] a, int from, int to, Comparator<? super T> comparator) {
+        if (to - from < 2) return;
+        new Sorter(a, (Comparator<Object>) comparator).sort(from, to);
+    }
+
+    @Override
+    public int[] argsort(long[] keys) {
+        LongSorter s = new LongSorter(keys.clone());
+        if (keys.length > 1) s.sort();
+        return s.ix;
+    }
+
+    /**
+     * Versão primitiva: mesmos runs naturais, {@code minRun} e invariantes da pilha; cada merge
+     * pula por busca binária o prefixo e o sufixo que já estão no lugar e intercala o resto
+     * (sem galope).
+     */
+    private static final class LongSorter {
+        private final long[] k;
+        private final int[] ix;
+        private long[] tk = new long[0];
+        private int[] tix = new int[0];
+        private final int[] runBase = new int[64];
+        private final int[] runLen = new int[64];
+        private int stackSize;
+
+        LongSorter(long[] k) {
+            this.k = k;
+            this.ix = LongArgsort.identity(k.length);
+        }
+
+        void sort() {
+            int lo = 0, hi = k.length;
+            int minRun = hi < MIN_MERGE ? hi : Sorter.minRunLength(hi);
+            while (lo < hi) {
+                Cancellation.checkpoint();
+                int run = countRunAndMakeAscending(lo, hi);
+                if (run < minRun) {
+                    int force = Math.min(hi - lo, minRun);
+                    binaryInsertion(lo, lo + force, lo + run);
+                    run = force;
+                }
+                runBase[stackSize] = lo;
+                runLen[stackSize] = run;
+                stackSize++;
+                mergeCollapse();
+                lo += run;
+            }
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] < runLen[i + 1]) i--;
+                mergeAt(i);
+            }
+        }
+
+        private int countRunAndMakeAscending(int lo, int hi) {
+            int i = lo + 1;
+            if (i == hi) return 1;
+            if (k[i++] < k[lo]) {
+                while (i < hi && k[i] < k[i - 1]) i++;
+                for (int l = lo, r = i - 1; l < r; l++, r--) LongArgsort.swap(k, ix, l, r);
+            } else {
+                while (i < hi && k[i] >= k[i - 1]) i++;
+            }
+            return i - lo;
+        }
+
+        private void binaryInsertion(int lo, int hi, int start) {
+            for (int i = Math.max(start, lo + 1); i < hi; i++) {
+                long xk = k[i];
+                int xi = ix[i];
+                int l = upperBound(lo, i, xk);
+                System.arraycopy(k, l, k, l + 1, i - l);
+                System.arraycopy(ix, l, ix, l + 1, i - l);
+                k[l] = xk;
+                ix[l] = xi;
+            }
+        }
+
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] <= runLen[i] + runLen[i + 1]
+                        || i > 1 && runLen[i - 2] <= runLen[i] + runLen[i - 1]) {
+                    if (runLen[i - 1] < runLen[i + 1]) i--;
+                } else if (runLen[i] > runLen[i + 1]) {
+                    break;
+                }
+                mergeAt(i);
+            }
+        }
+
+        private void mergeAt(int i) {
+            Cancellation.checkpoint();
+            int base1 = runBase[i], len1 = runLen[i];
+            int base2 = runBase[i + 1], len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int start = upperBound(base1, base1 + len1, k[base2]);
+            int end = lowerBound(base2, base2 + len2, k[base2 - 1]);
+            if (start == base2 || end == base2) return;
+            int n1 = base2 - start;
+            if (tk.length < n1) {
+                int cap = Math.max(n1, Math.min(k.length, tk.length * 2));
+                tk = new long[cap];
+                tix = new int[cap];
+            }
+            System.arraycopy(k, start, tk, 0, n1);
+            System.arraycopy(ix, start, tix, 0, n1);
+            // O run 2 só avança sobre posições já copiadas para tk, então intercala no próprio array
+            int c1 = 0, c2 = base2, d = start;
+            while (c1 < n1 && c2 < end) {
+                if (k[c2] < tk[c1]) { k[d] = k[c2]; ix[d++] = ix[c2++]; }
+                else { k[d] = tk[c1]; ix[d++] = tix[c1++]; }
+            }
+            System.arraycopy(tk, c1, k, d, n1 - c1);
+            System.arraycopy(tix, c1, ix, d, n1 - c1);
+        }
+
+        // Primeira posição de [lo, hi) com chave > key
+        private int upperBound(int lo, int hi, long key) {
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (k[m] <= key) lo = m + 1; else hi = m;
+            }
+            return lo;
+        }
+
+        // Primeira posição de [lo, hi) com chave >= key
+        private int lowerBound(int lo, int hi, long key) {
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (k[m] < key) lo = m + 1; else hi = m;
+            }
+            return lo;
+        }
+    }
+
+    private static final class Sorter {
+        private final Object[] a;
+        private final Comparator<Object> c;
+        private Object[] tmp = new Object[0];
+        private int minGallop = MIN_GALLOP;
+        private final int[] runBase = new int[64];
+        private final int[] runLen = new int[64];
+        private int stackSize;
+
+        Sorter(Object[] a, Comparator<Object> c) {
+            this.a = a;
+            this.c = c;
+        }
+
+        void sort(int lo, int hi) {
+            int n = hi - lo;
+            if (n < MIN_MERGE) {
+                binaryInsertion(lo, hi, countRunAndMakeAscending(lo, hi));
+                return;
+            }
+            int minRun = minRunLength(n);
+            while (lo < hi) {
+                Cancellation.checkpoint();
+                int run = countRunAndMakeAscending(lo, hi);
+                if (run < minRun) {
+                    int force = Math.min(hi - lo, minRun);
+                    binaryInsertion(lo, lo + force, lo + run);
+                    run = force;
+                }
+                runBase[stackSize] = lo;
+                runLen[stackSize] = run;
+                stackSize++;
+                mergeCollapse();
+                lo += run;
+            }
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] < runLen[i + 1]) i--;
+                mergeAt(i);
+            }
+        }
+
+        // Tamanho do run que começa em lo; run estritamente descendente é invertido (mantém estabilidade)
+        private int countRunAndMakeAscending(int lo, int hi) {
+            int i = lo + 1;
+            if (i == hi) return 1;
+            if (c.compare(a[i++], a[lo]) < 0) {
+                while (i < hi && c.compare(a[i], a[i - 1]) < 0) i++;
+                for (int l = lo, r = i - 1; l < r; l++, r--) {
+                    Object t = a[l]; a[l] = a[r]; a[r] = t;
+                }
+            } else {
+                while (i < hi && c.compare(a[i], a[i - 1]) >= 0) i++;
+            }
+            return i - lo;
+        }
+
+        // a[lo, start) já está ordenado; insere os demais com busca binária (à direita dos iguais)
+        private void binaryInsertion(int lo, int hi, int start) {
+            for (int i = Math.max(start, lo + 1); i < hi; i++) {
+                Object x = a[i];
+                int l = lo, r = i;
+                while (l < r) {
+                    int m = (l + r) >>> 1;
+                    if (c.compare(x, a[m]) < 0) r = m; else l = m + 1;
+                }
+                System.arraycopy(a, l, a, l + 1, i - l);
+                a[l] = x;
+            }
+        }
+
+        private static int minRunLength(int n) {
+            int r = 0;
+            while (n >= MIN_MERGE) {
+                r |= n & 1;
+                n >>= 1;
+            }
+            return n + r;
+        }
+
+        // Mantém runLen[i-2] > runLen[i-1] + runLen[i] e runLen[i-1] > runLen[i] no topo da pilha
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] <= runLen[i] + runLen[i + 1]
+                        || i > 1 && runLen[i - 2] <= runLen[i] + runLen[i - 1]) {
+                    if (runLen[i - 1] < runLen[i + 1]) i--;
+                } else if (runLen[i] > runLen[i + 1]) {
+                    break;
+                }
+                mergeAt(i);
+            }
+        }
+
+        private void mergeAt(int i) {
+            Cancellation.checkpoint();
+            int base1 = runBase[i], len1 = runLen[i];
+            int base2 = runBase[i + 1], len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            // Prefixo do run 1 <= primeiro do run 2 e sufixo do run 2 >= último do run 1 já estão no lugar
+            int k = gallop(a[base2], a, base1, len1, true, false);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+            len2 = gallop(a[base1 + len1 - 1], a, base2, len2, false, true);
+            if (len2 == 0) return;
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        /**
+         * Quantos elementos de arr[base, base+len) vêm antes de key: os {@code < key}, ou os
+         * {@code <= key} se {@code right}. Busca exponencial a partir do início ou do fim e depois binária.
+         */
+        private int gallop(Object key, Object[] arr, int base, int len, boolean right, boolean fromEnd) {
+            int lo, hi;
+            if (!fromEnd) {
+                if (len == 0 || !before(arr[base], key, right)) return 0;
+                int known = 0, step = 1;
+                while (true) {
+                    int p = known + step;
+                    if (p >= len) { hi = len; break; }
+                    if (!before(arr[base + p], key, right)) { hi = p; break; }
+                    known = p;
+                    step <<= 1;
+                }
+                lo = known + 1;
+            } else {
+                if (len == 0 || before(arr[base + len - 1], key, right)) return len;
+                int known = len - 1, step = 1;
+                while (true) {
+                    int p = known - step;
+                    if (p < 0) { lo = 0; break; }
+                    if (before(arr[base + p], key, right)) { lo = p + 1; break; }
+                    known = p;
+                    step <<= 1;
+                }
+                hi = known;
+            }
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (before(arr[base + m], key, right)) lo = m + 1; else hi = m;
+            }
+            return lo;
+        }
+
+        private boolean before(Object x, Object key, boolean right) {
+            int r = c.compare(x, key);
+            return right ? r <= 0 : r < 0;
+        }
+
+        private Object[] tmp(int n) {
+            if (tmp.length < n) tmp = new Object[Math.max(n, Math.min(a.length, tmp.length * 2))];
+            return tmp;
+        }
+
+        // Run 1 (menor) vai para tmp; intercala da esquerda para a direita
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            Object[] t = tmp(len1);
+            System.arraycopy(a, base1, t, 0, len1);
+            int c1 = 0, c2 = base2, end2 = base2 + len2, d = base1;
+            a[d++] = a[c2++];
+            outer:
+            while (c1 < len1 && c2 < end2) {
+                int wins1 = 0, wins2 = 0;
+                while (true) {
+                    if (c.compare(a[c2], t[c1]) < 0) {
+                        a[d++] = a[c2++];
+                        wins2++;
+                        wins1 = 0;
+                        if (c2 == end2) break outer;
+                    } else {
+                        a[d++] = t[c1++];
+                        wins1++;
+                        wins2 = 0;
+                        if (c1 == len1) break outer;
+                    }
+                    if ((wins1 | wins2) >= minGallop) break;
+                }
+                // Galope: copia em bloco enquanto um lado continuar vencendo por muito
+                int k1, k2;
+                do {
+                    k1 = gallop(a[c2], t, c1, len1 - c1, true, false);
+                    System.arraycopy(t, c1, a, d, k1);
+                    d += k1;
+                    c1 += k1;
+                    if (c1 == len1) break outer;
+                    a[d++] = a[c2++];
+                    if (c2 == end2) break outer;
+                    k2 = gallop(t[c1], a, c2, end2 - c2, false, false);
+                    System.arraycopy(a, c2, a, d, k2);
+                    d += k2;
+                    c2 += k2;
+                    if (c2 == end2) break outer;
+                    a[d++] = t[c1++];
+                    if (c1 == len1) break outer;
+                    minGallop--;
+                } while (k1 >= MIN_GALLOP || k2 >= MIN_GALLOP);
+                minGallop = Math.max(0, minGallop) + 2;
+            }
+            if (c1 < len1) System.arraycopy(t, c1, a, d, len1 - c1);
+        }
+
+        // Run 2 (menor) vai para tmp; intercala da direita para a esquerda
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            Object[] t = tmp(len2);
+            System.arraycopy(a, base2, t, 0, len2);
+            int c1 = base1 + len1 - 1, c2 = len2 - 1, d = base2 + len2 - 1;
+            a[d--] = a[c1--];
+            outer:
+            while (c1 >= base1 && c2 >= 0) {
+                int wins1 = 0, wins2 = 0;
+                while (true) {
+                    if (c.compare(t[c2], a[c1]) < 0) {
+                        a[d--] = a[c1--];
+                        wins1++;
+                        wins2 = 0;
+                        if (c1 < base1) break outer;
+                    } else {
+                        a[d--] = t[c2--];
+                        wins2++;
+                        wins1 = 0;
+                        if (c2 < 0) break outer;
+                    }
+                    if ((wins1 | wins2) >= minGallop) break;
+                }
+                int k1, k2;
+                do {
+                    k1 = (c1 - base1 + 1) - gallop(t[c2], a, base1, c1 - base1 + 1, true, true);
+                    System.arraycopy(a, c1 - k1 + 1, a, d - k1 + 1, k1);
+                    d -= k1;
+                    c1 -= k1;
+                    if (c1 < base1) break outer;
+                    a[d--] = t[c2--];
+                    if (c2 < 0) break outer;
+                    k2 = (c2 + 1) - gallop(a[c1], t, 0, c2 + 1, false, true);
+                    System.arraycopy(t, c2 - k2 + 1, a, d - k2 + 1, k2);
+                    d -= k2;
+                    c2 -= k2;
+                    if (c2 < 0) break outer;
+                    a[d--] = a[c1--];
+                    if (c1 < base1) break outer;
+                    minGallop--;
+                } while (k1 >= MIN_GALLOP || k2 >= MIN_GALLOP);
+                minGallop = Math.max(0, minGallop) + 2;
+            }
+            if (c2 >= 0) System.arraycopy(t, 0, a, base1, c2 + 1);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package sortx.core.stats;
 
 import org.springframework.stereotype.Component;
 import sortx.core.data.DataRecord;
+import sortx.core.data.DataSet;
+import sortx.core.data.column.DictionaryColumn;
 
 import java.util.*;
 
@@ -39,6 +41,24 @@ public class StatsService {
             String k = String.valueOf(o);
             freq.put(k, freq.getOrDefault(k, 0L) + 1);
         }
+        return top(freq, topN);
+    }
+
+    /** Frequências direto da coluna: numa {@link DictionaryColumn} conta códigos em um {@code int[]}. */
+    public Map<String, Long> frequency(DataSet data, String column, int topN) {
+        if (!(data.column(column) instanceof DictionaryColumn dc)) return frequency(data.getRows(), column, topN);
+        long[] counts = new long[dc.cardinality() + 1]; // última posição: null
+        for (int r = 0; r < data.size(); r++) {
+            int c = dc.code(r);
+            counts[c < 0 ? counts.length - 1 : c]++;
+        }
+        Map<String, Long> freq = new HashMap<>();
+        for (int c = 0; c < dc.cardinality(); c++) if (counts[c] > 0) freq.merge(dc.value(c), counts[c], Long::sum);
+        if (counts[counts.length - 1] > 0) freq.merge("null", counts[counts.length - 1], Long::sum);
+        return top(freq, topN);
+    }
+
+    private static Map<String, Long> top(Map<String, Long> freq, int topN) {
         return freq.entrySet().stream()
                 .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
                 .limit(topN)
@@ -9,6 +9,7 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 import sortx.core.data.DataRecord;
+import sortx.core.data.DataSet;
 import sortx.core.stats.StatsService;
 
 import java.util.ArrayList;
@@ -22,6 +23,7 @@ public class ChartsPane {
     private final BorderPane root = new BorderPane();
     private final ComboBox<String> fieldCombo = new ComboBox<>();
     private final Label statsLabel = new Label("Sem dados");
+    private DataSet lastData;
     private List<DataRecord> lastRows;
 
     public ChartsPane(StatsService stats) {
@@ -36,8 +38,9 @@ public class ChartsPane {
         if (!headers.isEmpty()) fieldCombo.getSelectionModel().selectFirst();
     }
 
-    public void refresh(List<DataRecord> rows) {
-        lastRows = rows;
+    public void refresh(DataSet data) {
+        lastData = data;
+        lastRows = data.getRows();
         updateCharts();
     }
 
@@ -66,7 +69,7 @@ public class ChartsPane {
         BarChart<String, Number> bar = new BarChart<>(xAxis, yAxis);
         bar.setTitle("Top 10 frequências: " + col);
         XYChart.Series<String, Number> series = new XYChart.Series<>();
-        Map<String, Long> freq = stats.frequency(lastRows, col, 10);
+        Map<String, Long> freq = stats.frequency(lastData, col, 10);
         for (Map.Entry<String, Long> e : freq.entrySet()) {
             series.getData().add(new XYChart.Data<>(e.getKey(), e.getValue()));
         }
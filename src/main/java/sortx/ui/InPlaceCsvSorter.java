@@ -2,19 +2,37 @@ package sortx.ui;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVRecord;
-import sortx.core.data.DataRecord;
-import sortx.core.rules.ComparatorFactory;
+import sortx.core.data.LazyDataRecord;
+import sortx.core.data.parser.CsvChunker;
+import sortx.core.data.parser.CsvRecordReader;
+import sortx.core.io.AsyncStreams;
+import sortx.core.io.LoserTree;
+import sortx.core.io.MappedRecordFile;
+import sortx.core.io.MemoryBudget;
+import sortx.core.io.ReplacementSelection;
+import sortx.core.io.RunFile;
+import sortx.core.io.RunPipeline;
+import sortx.core.io.RunRecord;
+import sortx.core.io.SpillDirectories;
 import sortx.core.rules.RuleSet;
+import sortx.core.rules.SortKeyEncoder;
+import sortx.core.service.ProgressListener;
+import sortx.core.sort.Cancellation;
 import sortx.core.sort.SortStrategy;
 import sortx.core.sort.SortStrategyRegistry;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class InPlaceCsvSorter {
 
@@ -22,13 +40,32 @@ public class InPlaceCsvSorter {
 
     private static final int MAX_LINE_BYTES = Integer.getInteger("sortx.maxLineBytes", 1_048_576); // 1MiB por linha (INDEX)
     private static final int INDEX_IO_BUFFER = Integer.getInteger("sortx.indexIoBuffer", 64 * 1024); // 64KiB
+    private static final int INDEX_THREADS = Integer.getInteger("sortx.indexThreads", Runtime.getRuntime().availableProcessors());
     private static final java.nio.charset.Charset CS = StandardCharsets.UTF_8;
-    private static final int INDEX_REC_SIZE = 12; // [offset(long)=8][length(int)=4]
-
-    private static final char CSV_DELIM = CSVFormat.DEFAULT.getDelimiter();
+    private static final int INDEX_KEY_PREFIX = Integer.getInteger("sortx.indexKeyPrefix", 24);
+    private static final int INDEX_REC_SIZE = 13 + INDEX_KEY_PREFIX; // [offset(long)=8][length(int)=4][chave completa(byte)=1][prefixo da chave]
+    private static final int INTRO_INSERTION_CUTOFF = 16;
 
     private static final int MAX_ROWS_IN_MEMORY =
             Integer.getInteger("sortx.maxRowsInMemory", 50_000);
+    private static final int RUN_SORT_THREADS =
+            Integer.getInteger("sortx.runSortThreads", Runtime.getRuntime().availableProcessors());
+    private static final int RUN_READ_BUFFER = Integer.getInteger("sortx.runIoBuffer", 256 * 1024);
+    private static final int MERGE_FAN_IN = Math.max(2, Integer.getInteger("sortx.mergeFanIn", 64));
+    private static final int MERGE_READ_BUFFER = Integer.getInteger("sortx.mergeReadBuffer", 1024 * 1024);
+    private static final int MERGE_MIN_READ_BUFFER = 16 * 1024;
+    private static final int RUN_WRITER_THREADS = Integer.getInteger("sortx.runWriterThreads", 2);
+    // Blocos em memória além do que está sendo lido: limita o pico de RAM do modo RUNS
+    private static final int RUN_CHUNKS_IN_FLIGHT =
+            Integer.getInteger("sortx.runChunksInFlight", Math.max(2, RUN_SORT_THREADS));
+    // Orçamento de heap do modo RUNS (sortx.runMemoryBytes ou sortx.runMemoryFraction); maxRowsInMemory fica como teto
+    private static final long RUN_MEMORY_BYTES = MemoryBudget.total();
+    private static final long RUN_MIN_CHUNK_BYTES = 1L << 20;
+    private static final int PRESSURE_CHECK_ROWS = 1024;
+    private static final int PROGRESS_MASK = 0xFFF; // progresso e cancelamento a cada 4096 registros
+    // SORT: blocos de maxRowsInMemory ordenados pelo algoritmo escolhido; REPLACEMENT: seleção com substituição
+    private static final boolean RUN_REPLACEMENT =
+            "REPLACEMENT".equalsIgnoreCase(System.getProperty("sortx.runFormation", "SORT"));
 
 
     public static void sortFile(File file,
@@ -47,27 +84,51 @@ public class InPlaceCsvSorter {
                                 Locale locale,
                                 SortStrategyRegistry sortRegistry,
                                 ExternalMode mode) throws Exception {
+        sortFile(file, rules, algorithmName, locale, sortRegistry, mode, ProgressListener.NONE);
+    }
+
+    /**
+     * Igual ao anterior, informando fase e progresso; pode ser cancelado interrompendo a thread
+     * (ou pelo próprio listener, quando é um job). Se falhar ou for cancelado, o arquivo original
+     * fica intacto e os temporários são apagados.
+     */
+    public static void sortFile(File file,
+                                RuleSet rules,
+                                String algorithmName,
+                                Locale locale,
+                                SortStrategyRegistry sortRegistry,
+                                ExternalMode mode,
+                                ProgressListener progress) throws Exception {
         Objects.requireNonNull(file, "file");
         Objects.requireNonNull(mode, "mode");
 
         if (mode == ExternalMode.INDEX) {
             // Modo 1 índice em disco (zero RAM)
-            IndexInfo index = buildDiskIndex(file);
-            Comparator<IndexEntry> cmp = buildDiskRecordComparator(file, index.headers, rules, locale);
-            switch (algorithmName.toLowerCase(Locale.ROOT)) {
-                case "mergesort" -> diskMergeSort(index.idxFile, cmp);
-                case "quicksort" -> diskQuickSort(index.idxFile, 0, index.count - 1, cmp);
-                case "bubblesort" -> diskBubbleSort(index.idxFile, index.count, cmp);
-                case "selectionsort" -> diskSelectionSort(index.idxFile, index.count, cmp);
-                default -> diskMergeSort(index.idxFile, cmp);
+            SortKeyEncoder encoder = new SortKeyEncoder(rules, locale);
+            report(progress, "Indexando arquivo", -1);
+            IndexInfo index = buildDiskIndex(file, rules, locale);
+            try {
+                SortStrategyRegistry.checkQuadratic(sortRegistry.byName(algorithmName), index.count);
+                report(progress, "Ordenando índice", -1);
+                try (IndexKeyComparator cmp = new IndexKeyComparator(file, encoder, new LazyDataRecord.Schema(Arrays.asList(index.headers)))) {
+                    switch (algorithmName.toLowerCase(Locale.ROOT)) {
+                        case "mergesort" -> diskMergeSort(index.idxFile, cmp);
+                        case "quicksort" -> diskQuickSort(index.idxFile, 0, index.count - 1, cmp);
+                        case "introsort" -> diskIntroSort(index.idxFile, index.count, cmp);
+                        case "bubblesort" -> diskBubbleSort(index.idxFile, index.count, cmp);
+                        case "selectionsort" -> diskSelectionSort(index.idxFile, index.count, cmp);
+                        default -> diskMergeSort(index.idxFile, cmp); // Auto e demais: merge em disco, estável e sequencial
+                    }
+                }
+                rewriteCsvFromIndex(file, index, progress);
+            } finally {
+                try { index.idxFile.delete(); } catch (Exception ignored) {}
             }
-            rewriteCsvFromIndex(file, index);
-            try { index.idxFile.delete(); } catch (Exception ignored) {}
             return;
         }
 
         //  Modo 2 external merge por runs (chunks)
-        externalMergeByRuns(file, rules, algorithmName, locale, sortRegistry);
+        externalMergeByRuns(file, rules, algorithmName, locale, sortRegistry, progress);
     }
 
     // MODO 1 INDEX (zero RAM) lê/ordena índice no disco e regrava CSV pela ordem nova
@@ -89,83 +150,142 @@ public class InPlaceCsvSorter {
         }
     }
 
+    // Entrada do índice: posição da linha no CSV + prefixo de tamanho fixo da chave normalizada
     private static class IndexEntry {
         long offset;
         int length;
-        IndexEntry() {}
-        IndexEntry(long o, int l) { offset = o; length = l; }
-    }
+        boolean complete; // a chave inteira coube no prefixo
+        final byte[] prefix = new byte[INDEX_KEY_PREFIX];
+
+        void setKey(byte[] key) {
+            int n = Math.min(key.length, prefix.length);
+            System.arraycopy(key, 0, prefix, 0, n);
+            Arrays.fill(prefix, n, prefix.length, (byte) 0);
+            complete = key.length <= prefix.length;
+        }
 
-    private static IndexInfo buildDiskIndex(File csv) throws IOException {
-        File idxFile = File.createTempFile("sortx_idx_", ".bin");
+        void read(MappedRecordFile f, long i) {
+            offset = f.getLong(i, 0);
+            length = f.getInt(i, 8);
+            complete = f.get(i, 12) != 0;
+            f.get(i, 13, prefix);
+        }
 
-        try (InputStream in = new BufferedInputStream(new FileInputStream(csv), INDEX_IO_BUFFER);
-             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(idxFile), INDEX_IO_BUFFER))) {
+        void write(DataOutput out) throws IOException {
+            out.writeLong(offset);
+            out.writeInt(length);
+            out.writeBoolean(complete);
+            out.write(prefix);
+        }
+    }
 
-            long pos = 0L;
-            long lineStart = 0L;
-            boolean sawCR = false;
-            boolean firstLine = true;
-            long rows = 0L;
+    /**
+     * Indexa o CSV em blocos mapeados, com estado de aspas (campos com quebra de linha formam um
+     * único registro). Arquivos grandes são divididos em faixas alinhadas a registros
+     * ({@link CsvChunker}) indexadas em paralelo, cada uma em um arquivo parcial, e concatenadas na ordem.
+     */
+    private static IndexInfo buildDiskIndex(File csv, RuleSet rules, Locale locale) throws IOException {
+        File idxFile = null;
+        ExecutorService pool = Executors.newFixedThreadPool(INDEX_THREADS);
+        List<File> partFiles = new ArrayList<>();
+        try (FileChannel ch = FileChannel.open(csv.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            long headerEnd = CsvChunker.recordEnd(ch, 0, size, false);
+            byte[] headerBytes = new byte[(int) headerEnd];
+            ch.read(ByteBuffer.wrap(headerBytes), 0);
+            int headerLength = headerBytes.length;
             String newline = "\n";
-
-            ByteArrayOutputStream headerCapture = new ByteArrayOutputStream(4096);
-
-            int b;
-            while ((b = in.read()) != -1) {
-                if (b == '\n') {
-                    long lineEndExclusive = pos;
-                    int len = (int) (lineEndExclusive - lineStart);
-                    if (sawCR && len > 0) { len -= 1; newline = "\r\n"; } else { newline = "\n"; }
-
-                    if (firstLine) {
-                        readRangeToBuffer(csv, lineStart, len, headerCapture);
-                        firstLine = false;
-                    } else {
-                        out.writeLong(lineStart);
-                        out.writeInt(len);
-                        rows++;
-                    }
-                    lineStart = pos + 1;
-                    sawCR = false;
-                } else if (b == '\r') {
-                    sawCR = true;
-                } else {
-                    sawCR = false;
-                }
-                pos++;
+            if (headerLength > 0 && headerBytes[headerLength - 1] == '\n') {
+                headerLength--;
+                if (headerLength > 0 && headerBytes[headerLength - 1] == '\r') { headerLength--; newline = "\r\n"; }
             }
-
-            if (pos > lineStart) {
-                int len = (int) (pos - lineStart);
-                if (firstLine) {
-                    readRangeToBuffer(csv, lineStart, len, headerCapture);
-                    firstLine = false;
-                } else {
-                    out.writeLong(lineStart);
-                    out.writeInt(len);
-                    rows++;
-                }
+            String headerLine = new String(headerBytes, 0, headerLength, CS);
+            String[] headerNames = parseHeader(headerLine);
+            LazyDataRecord.Schema schema = new LazyDataRecord.Schema(Arrays.asList(headerNames));
+
+            long[] bounds = CsvChunker.split(ch, headerEnd, size, INDEX_THREADS, pool);
+            int parts = bounds.length - 1;
+            List<Callable<Long>> tasks = new ArrayList<>(parts);
+            for (int p = 0; p < parts; p++) {
+                long from = bounds[p], to = bounds[p + 1];
+                // O índice só tem tamanho conhecido depois da varredura, e passa do CSV quando os
+                // registros têm menos de INDEX_REC_SIZE bytes: a faixa é só uma estimativa inicial
+                File part = SpillDirectories.createTempFile(parts == 1 ? "sortx_idx_" : "sortx_idx_part_", ".bin", to - from);
+                partFiles.add(part);
+                tasks.add(() -> {
+                    SortKeyEncoder encoder = new SortKeyEncoder(rules, locale);
+                    return indexRange(ch, from, to, encoder, schema, part);
+                });
+            }
+            long rows = 0;
+            for (long r : CsvChunker.invokeAll(pool, tasks)) rows += r;
+            if (parts == 1) {
+                idxFile = partFiles.get(0);
+            } else {
+                // As partes ficam no disco até serem copiadas: o índice final precisa do tamanho real delas livre
+                long total = 0;
+                for (File part : partFiles) total += part.length();
+                idxFile = SpillDirectories.createTempFile("sortx_idx_", ".bin", total);
+                concatenate(partFiles, idxFile);
             }
 
-            String headerLine = headerCapture.toString(CS);
-            String[] headerNames = parseHeader(headerLine);
+            return new IndexInfo(idxFile, 0L, headerLength, newline, headerNames, rows);
+        } catch (IOException | RuntimeException e) {
+            if (idxFile != null) { try { idxFile.delete(); } catch (Exception ignored) {} }
+            for (File part : partFiles) { try { part.delete(); } catch (Exception ignored) { } }
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-            return new IndexInfo(idxFile, 0L, headerLine.getBytes(CS).length, newline, headerNames, rows);
+    private static long indexRange(FileChannel ch, long from, long to, SortKeyEncoder encoder,
+                                   LazyDataRecord.Schema schema, File part) throws IOException {
+        int[] positions = encoder.positions(schema.headers());
+        long rows = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(part), INDEX_IO_BUFFER))) {
+            if (to <= from) return 0;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            IndexEntry entry = new IndexEntry();
+            byte[] line = new byte[4096];
+            int n = buf.limit();
+            int start = 0;
+            boolean inQuotes = false;
+            for (int i = 0; i <= n; i++) {
+                if (i < n) {
+                    byte b = buf.get(i);
+                    if (b == '"') inQuotes = !inQuotes;
+                    if (b != '\n' || inQuotes) continue;
+                } else if (start >= n) {
+                    break;
+                }
+                int end = i;
+                if (i < n && end > start && buf.get(end - 1) == '\r') end--;
+                int len = end - start;
+                if (len > 0) {
+                    if (len > MAX_LINE_BYTES) throw new IOException("Linha excede MAX_LINE_BYTES: " + len + " > " + MAX_LINE_BYTES);
+                    if (line.length < len) line = new byte[Math.max(len, line.length * 2)];
+                    buf.get(start, line, 0, len);
+                    entry.offset = from + start;
+                    entry.length = len;
+                    entry.setKey(encoder.encode(new LazyDataRecord(schema, line, 0, len), positions));
+                    entry.write(out);
+                    if ((++rows & PROGRESS_MASK) == 0) Cancellation.checkpoint();
+                }
+                start = i + 1;
+            }
         }
+        return rows;
     }
 
-    private static void readRangeToBuffer(File csv, long offset, int length, ByteArrayOutputStream sink) throws IOException {
-        try (RandomAccessFile raf = new RandomAccessFile(csv, "r")) {
-            raf.seek(offset);
-            byte[] buf = new byte[Math.min(length, 64 * 1024)];
-            int remaining = length;
-            while (remaining > 0) {
-                int toRead = Math.min(remaining, buf.length);
-                int n = raf.read(buf, 0, toRead);
-                if (n <= 0) break;
-                sink.write(buf, 0, n);
-                remaining -= n;
+    private static void concatenate(List<File> parts, File target) throws IOException {
+        try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (File part : parts) {
+                try (FileChannel in = FileChannel.open(part.toPath(), StandardOpenOption.READ)) {
+                    long pos = 0, size = in.size();
+                    while (pos < size) pos += in.transferTo(pos, size - pos, out);
+                }
+                try { part.delete(); } catch (Exception ignored) {}
             }
         }
     }
@@ -180,156 +300,193 @@ public class InPlaceCsvSorter {
         }
     }
 
-    private static Comparator<IndexEntry> buildDiskRecordComparator(File csvFile,
-                                                                    String[] headers,
-                                                                    RuleSet rules,
-                                                                    Locale locale) {
-        Comparator<DataRecord> dataComp = ComparatorFactory.build(rules, locale);
-        return (a, b) -> {
+    /**
+     * Compara entradas pelo prefixo da chave guardado no próprio índice. Só quando os prefixos
+     * empatam e alguma das chaves não coube inteira a linha é lida do CSV (por um único
+     * {@link RandomAccessFile} aberto) e a chave completa é recalculada.
+     */
+    private static final class IndexKeyComparator implements Comparator<IndexEntry>, Closeable {
+        private final RandomAccessFile csv;
+        private final SortKeyEncoder encoder;
+        private final LazyDataRecord.Schema schema;
+        private final int[] positions;
+        private byte[] lineBuf = new byte[4096];
+
+        IndexKeyComparator(File csvFile, SortKeyEncoder encoder, LazyDataRecord.Schema schema) throws IOException {
+            this.csv = new RandomAccessFile(csvFile, "r");
+            this.encoder = encoder;
+            this.schema = schema;
+            this.positions = encoder.positions(schema.headers());
+        }
+
+        @Override
+        public int compare(IndexEntry a, IndexEntry b) {
+            int c = Arrays.compareUnsigned(a.prefix, b.prefix);
+            if (c != 0 || a.complete && b.complete) return c;
             try {
-                DataRecord ra = readDataRecord(csvFile, headers, a);
-                DataRecord rb = readDataRecord(csvFile, headers, b);
-                return dataComp.compare(ra, rb);
+                return Arrays.compareUnsigned(fullKey(a), fullKey(b));
             } catch (IOException e) {
-                return 0;
+                throw new UncheckedIOException(e);
             }
-        };
-    }
-
-    private static DataRecord readDataRecord(File csvFile, String[] headers, IndexEntry e) throws IOException {
-        if (e.length > MAX_LINE_BYTES) {
-            throw new IOException("Linha excede MAX_LINE_BYTES: " + e.length + " > " + MAX_LINE_BYTES);
         }
-        byte[] bytes = new byte[e.length];
-        try (RandomAccessFile raf = new RandomAccessFile(csvFile, "r")) {
-            raf.seek(e.offset);
-            raf.readFully(bytes);
-        }
-        String line = new String(bytes, CS);
-
-        StringBuilder sb = new StringBuilder(headers.length * 8 + line.length() + 2);
-        for (int i = 0; i < headers.length; i++) {
-            if (i > 0) sb.append(CSV_DELIM);
-            sb.append(headers[i]);
-        }
-        sb.append('\n').append(line);
 
-        try (CSVParser p = CSVParser.parse(sb.toString(), CSVFormat.DEFAULT
-                .builder()
-                .setHeader()
-                .setSkipHeaderRecord(true)
-                .setIgnoreSurroundingSpaces(true)
-                .setTrim(true)
-                .build())) {
-            Iterator<CSVRecord> it = p.iterator();
-            if (it.hasNext()) {
-                CSVRecord rec = it.next();
-                DataRecord dr = new DataRecord();
-                for (String h : headers) dr.put(h, rec.get(h));
-                return dr;
-            } else {
-                throw new IOException("Falha ao parsear linha em offset=" + e.offset);
+        private byte[] fullKey(IndexEntry e) throws IOException {
+            if (e.length > MAX_LINE_BYTES) {
+                throw new IOException("Linha excede MAX_LINE_BYTES: " + e.length + " > " + MAX_LINE_BYTES);
             }
+            if (lineBuf.length < e.length) lineBuf = new byte[e.length];
+            csv.seek(e.offset);
+            csv.readFully(lineBuf, 0, e.length);
+            return encoder.encode(new LazyDataRecord(schema, lineBuf, 0, e.length), positions);
         }
+
+        @Override
+        public void close() throws IOException { csv.close(); }
     }
 
     private static long indexCount(File idxFile) {
         return idxFile.length() / INDEX_REC_SIZE;
     }
 
-    private static IndexEntry readIndex(File idx, long i) throws IOException {
-        try (RandomAccessFile raf = new RandomAccessFile(idx, "r")) {
-            raf.seek(i * INDEX_REC_SIZE);
-            IndexEntry e = new IndexEntry();
-            e.offset = raf.readLong();
-            e.length = raf.readInt();
-            return e;
-        }
+    // Acesso ao índice por janelas mapeadas: leituras/escritas posicionais sem syscalls
+
+    private static MappedRecordFile mapIndex(File idx, boolean writable) throws IOException {
+        return MappedRecordFile.open(idx, INDEX_REC_SIZE, writable);
     }
 
-    private static void writeIndex(File idx, long i, IndexEntry e) throws IOException {
-        try (RandomAccessFile raf = new RandomAccessFile(idx, "rw")) {
-            raf.seek(i * INDEX_REC_SIZE);
-            raf.writeLong(e.offset);
-            raf.writeInt(e.length);
+    private static void diskQuickSort(File idx, long lo, long hi, Comparator<IndexEntry> comp) throws IOException {
+        try (MappedRecordFile f = mapIndex(idx, true)) {
+            diskQuickSort(f, lo, hi, comp, new IndexEntry(), new IndexEntry());
         }
     }
 
-    private static void swapIndex(File idx, long i, long j) throws IOException {
-        if (i == j) return;
-        IndexEntry a = readIndex(idx, i);
-        IndexEntry b = readIndex(idx, j);
-        writeIndex(idx, i, b);
-        writeIndex(idx, j, a);
+    private static void diskQuickSort(MappedRecordFile f, long lo, long hi, Comparator<IndexEntry> comp,
+                                      IndexEntry pivot, IndexEntry cur) {
+        if (lo >= hi) return;
+        Cancellation.checkpoint();
+        long i = lo, j = hi;
+        pivot.read(f, lo + (hi - lo) / 2);
+        while (i <= j) {
+            while (compareBy(f, i, pivot, cur, comp) < 0) i++;
+            while (compareBy(f, j, pivot, cur, comp) > 0) j--;
+            if (i <= j) { f.swap(i, j); i++; j--; }
+        }
+        if (lo < j) diskQuickSort(f, lo, j, comp, pivot, cur);
+        if (i < hi) diskQuickSort(f, i, hi, comp, pivot, cur);
     }
 
-    private static IndexEntry readIndexAt(RandomAccessFile raf, long i) throws IOException {
-        raf.seek(i * INDEX_REC_SIZE);
-        IndexEntry e = new IndexEntry();
-        e.offset = raf.readLong();
-        e.length = raf.readInt();
-        return e;
+    private static int compareBy(MappedRecordFile f, long i, IndexEntry pivot, IndexEntry cur, Comparator<IndexEntry> comp) {
+        cur.read(f, i);
+        return comp.compare(cur, pivot);
     }
 
-    private static void writeIndexAt(RandomAccessFile raf, long i, IndexEntry e) throws IOException {
-        raf.seek(i * INDEX_REC_SIZE);
-        raf.writeLong(e.offset);
-        raf.writeInt(e.length);
+    // Introsort no índice: mediana de 3 (ninther em faixas grandes), partição em 3 vias, heapsort ao
+    // passar de 2·log2(n) níveis e recursão só na parte menor, então nem tempo nem pilha degeneram
+    private static void diskIntroSort(File idx, long n, Comparator<IndexEntry> comp) throws IOException {
+        if (n < 2) return;
+        try (MappedRecordFile f = mapIndex(idx, true)) {
+            int depth = 2 * (63 - Long.numberOfLeadingZeros(n));
+            diskIntroSort(f, 0, n, depth, comp, new IndexEntry(), new IndexEntry(), new IndexEntry());
+        }
     }
 
-    private static void swapIndexAt(RandomAccessFile raf, long i, long j) throws IOException {
-        if (i == j) return;
-        raf.seek(i * INDEX_REC_SIZE);
-        long io = raf.readLong();
-        int il = raf.readInt();
-
-        raf.seek(j * INDEX_REC_SIZE);
-        long jo = raf.readLong();
-        int jl = raf.readInt();
+    private static void diskIntroSort(MappedRecordFile f, long lo, long hi, int depth, Comparator<IndexEntry> comp,
+                                      IndexEntry pivot, IndexEntry x, IndexEntry y) {
+        while (hi - lo > INTRO_INSERTION_CUTOFF) {
+            Cancellation.checkpoint();
+            if (depth-- == 0) {
+                diskHeapSort(f, lo, hi, comp, x, y);
+                return;
+            }
+            long n = hi - lo, mid = lo + n / 2, m;
+            if (n < 128) {
+                m = median3(f, lo, mid, hi - 1, comp, x, y);
+            } else {
+                long s = n / 8;
+                m = median3(f,
+                        median3(f, lo, lo + s, lo + 2 * s, comp, x, y),
+                        median3(f, mid - s, mid, mid + s, comp, x, y),
+                        median3(f, hi - 1 - 2 * s, hi - 1 - s, hi - 1, comp, x, y), comp, x, y);
+            }
+            // Bentley-McIlroy: iguais ao pivô vão para as pontas e depois para o meio (poucas trocas)
+            f.swap(lo, m);
+            pivot.read(f, lo);
+            long i = lo, j = hi, p = lo, q = hi;
+            while (true) {
+                while (compareBy(f, ++i, pivot, x, comp) < 0) if (i == hi - 1) break;
+                while (compareBy(f, --j, pivot, x, comp) > 0) if (j == lo) break;
+                if (i == j && compareBy(f, i, pivot, x, comp) == 0) f.swap(++p, i);
+                if (i >= j) break;
+                f.swap(i, j);
+                if (compareBy(f, i, pivot, x, comp) == 0) f.swap(++p, i);
+                if (compareBy(f, j, pivot, x, comp) == 0) f.swap(--q, j);
+            }
+            i = j + 1;
+            for (long k = lo; k <= p; k++) f.swap(k, j--);
+            for (long k = hi - 1; k >= q; k--) f.swap(k, i++);
+            long lt = j + 1, gt = i - 1;
+            // [lo, lt) < pivô, [lt, gt] = pivô, (gt, hi) > pivô
+            if (lt - lo < hi - gt - 1) {
+                diskIntroSort(f, lo, lt, depth, comp, pivot, x, y);
+                lo = gt + 1;
+            } else {
+                diskIntroSort(f, gt + 1, hi, depth, comp, pivot, x, y);
+                hi = lt;
+            }
+        }
+        for (long k = lo + 1; k < hi; k++) {
+            for (long j = k; j > lo && lessAt(f, j, j - 1, comp, x, y); j--) f.swap(j, j - 1);
+        }
+    }
 
-        raf.seek(i * INDEX_REC_SIZE);
-        raf.writeLong(jo);
-        raf.writeInt(jl);
+    private static long median3(MappedRecordFile f, long i, long j, long k, Comparator<IndexEntry> comp, IndexEntry x, IndexEntry y) {
+        boolean ij = lessAt(f, i, j, comp, x, y);
+        boolean jk = lessAt(f, j, k, comp, x, y);
+        boolean ik = lessAt(f, i, k, comp, x, y);
+        return ij ? (jk ? j : ik ? k : i) : (ik ? i : jk ? k : j);
+    }
 
-        raf.seek(j * INDEX_REC_SIZE);
-        raf.writeLong(io);
-        raf.writeInt(il);
+    private static void diskHeapSort(MappedRecordFile f, long lo, long hi, Comparator<IndexEntry> comp, IndexEntry x, IndexEntry y) {
+        long n = hi - lo;
+        for (long k = n / 2 - 1; k >= 0; k--) diskSiftDown(f, lo, k, n, comp, x, y);
+        for (long end = n - 1; end > 0; end--) {
+            f.swap(lo, lo + end);
+            diskSiftDown(f, lo, 0, end, comp, x, y);
+        }
     }
 
-    private static void diskQuickSort(File idx, long lo, long hi, Comparator<IndexEntry> comp) throws IOException {
-        if (lo >= hi) return;
-        long i = lo, j = hi;
-        IndexEntry pivot = readIndex(idx, lo + (hi - lo) / 2);
-        while (i <= j) {
-            while (compareBy(idx, i, pivot, comp) < 0) i++;
-            while (compareBy(idx, j, pivot, comp) > 0) j--;
-            if (i <= j) { swapIndex(idx, i, j); i++; j--; }
+    private static void diskSiftDown(MappedRecordFile f, long base, long k, long n, Comparator<IndexEntry> comp, IndexEntry x, IndexEntry y) {
+        while (2 * k + 1 < n) {
+            long c = 2 * k + 1;
+            if (c + 1 < n && lessAt(f, base + c, base + c + 1, comp, x, y)) c++;
+            if (!lessAt(f, base + k, base + c, comp, x, y)) return;
+            f.swap(base + k, base + c);
+            k = c;
         }
-        if (lo < j) diskQuickSort(idx, lo, j, comp);
-        if (i < hi) diskQuickSort(idx, i, hi, comp);
     }
 
-    private static int compareBy(File idx, long i, IndexEntry pivot, Comparator<IndexEntry> comp) throws IOException {
-        IndexEntry e = readIndex(idx, i);
-        return comp.compare(e, pivot);
+    private static boolean lessAt(MappedRecordFile f, long i, long j, Comparator<IndexEntry> comp, IndexEntry x, IndexEntry y) {
+        x.read(f, i);
+        y.read(f, j);
+        return comp.compare(x, y) < 0;
     }
 
     private static void diskMergeSort(File idx, Comparator<IndexEntry> comp) throws IOException {
         long n = indexCount(idx);
         if (n <= 1) return;
 
-        File aux = File.createTempFile("sortx_idx_aux_", ".bin");
-        try (RandomAccessFile rafSrc = new RandomAccessFile(idx, "r");
-             RandomAccessFile rafDst = new RandomAccessFile(aux, "rw")) {
-            rafDst.setLength(rafSrc.length());
-        }
-
+        // Mesmo diretório do índice: o resultado volta para ele com move atômico
+        File aux = SpillDirectories.createSibling(idx, "sortx_idx_aux_", ".bin", idx.length());
         boolean srcIsIdx = true;
-        for (long size = 1; size < n; size <<= 1) {
-            File src = srcIsIdx ? idx : aux;
-            File dst = srcIsIdx ? aux : idx;
-            mergePass(src, dst, size, n, comp);
-            srcIsIdx = !srcIsIdx;
+        try (MappedRecordFile a = mapIndex(idx, true);
+             MappedRecordFile b = MappedRecordFile.open(aux, INDEX_REC_SIZE, n, true)) {
+            for (long size = 1; size < n; size <<= 1) {
+                mergePass(srcIsIdx ? a : b, srcIsIdx ? b : a, size, n, comp);
+                srcIsIdx = !srcIsIdx;
+            }
+        } catch (IOException | RuntimeException e) {
+            try { aux.delete(); } catch (Exception ignored) {}
+            throw e;
         }
 
         if (!srcIsIdx) {
@@ -341,42 +498,45 @@ public class InPlaceCsvSorter {
         }
     }
 
-    private static void mergePass(File src, File dst, long size, long n, Comparator<IndexEntry> comp) throws IOException {
-        try (RandomAccessFile in = new RandomAccessFile(src, "r");
-             RandomAccessFile out = new RandomAccessFile(dst, "rw")) {
-            long left = 0;
-            while (left < n) {
-                long mid = Math.min(left + size, n);
-                long right = Math.min(left + 2 * size, n);
-                long i = left, j = mid;
-                while (i < mid && j < right) {
-                    IndexEntry ei = readIndexAt(in, i);
-                    IndexEntry ej = readIndexAt(in, j);
-                    if (comp.compare(ei, ej) <= 0) {
-                        writeIndexAt(out, left++, ei);
-                        i++;
-                    } else {
-                        writeIndexAt(out, left++, ej);
-                        j++;
-                    }
+    private static void mergePass(MappedRecordFile in, MappedRecordFile out, long size, long n, Comparator<IndexEntry> comp) {
+        IndexEntry ei = new IndexEntry();
+        IndexEntry ej = new IndexEntry();
+        long left = 0;
+        while (left < n) {
+            if ((left & PROGRESS_MASK) == 0) Cancellation.checkpoint();
+            long mid = Math.min(left + size, n);
+            long right = Math.min(left + 2 * size, n);
+            long i = left, j = mid;
+            if (i < mid) ei.read(in, i);
+            if (j < right) ej.read(in, j);
+            while (i < mid && j < right) {
+                if (comp.compare(ei, ej) <= 0) {
+                    in.copyTo(i++, out, left++);
+                    if (i < mid) ei.read(in, i);
+                } else {
+                    in.copyTo(j++, out, left++);
+                    if (j < right) ej.read(in, j);
                 }
-                while (i < mid) writeIndexAt(out, left++, readIndexAt(in, i++));
-                while (j < right) writeIndexAt(out, left++, readIndexAt(in, j++));
             }
+            while (i < mid) in.copyTo(i++, out, left++);
+            while (j < right) in.copyTo(j++, out, left++);
         }
     }
 
     private static void diskBubbleSort(File idx, long n, Comparator<IndexEntry> comp) throws IOException {
         boolean swapped;
         long end = n;
-        try (RandomAccessFile raf = new RandomAccessFile(idx, "rw")) {
+        IndexEntry a = new IndexEntry();
+        IndexEntry b = new IndexEntry();
+        try (MappedRecordFile f = mapIndex(idx, true)) {
             do {
+                Cancellation.checkpoint();
                 swapped = false;
                 for (long i = 1; i < end; i++) {
-                    IndexEntry a = readIndexAt(raf, i - 1);
-                    IndexEntry b = readIndexAt(raf, i);
+                    a.read(f, i - 1);
+                    b.read(f, i);
                     if (comp.compare(a, b) > 0) {
-                        swapIndexAt(raf, i - 1, i);
+                        f.swap(i - 1, i);
                         swapped = true;
                     }
                 }
@@ -386,37 +546,40 @@ public class InPlaceCsvSorter {
     }
 
     private static void diskSelectionSort(File idx, long n, Comparator<IndexEntry> comp) throws IOException {
-        try (RandomAccessFile raf = new RandomAccessFile(idx, "rw")) {
+        IndexEntry min = new IndexEntry();
+        IndexEntry cur = new IndexEntry();
+        try (MappedRecordFile f = mapIndex(idx, true)) {
             for (long i = 0; i < n - 1; i++) {
+                Cancellation.checkpoint();
                 long minIdx = i;
-                IndexEntry min = readIndexAt(raf, i);
+                min.read(f, i);
                 for (long j = i + 1; j < n; j++) {
-                    IndexEntry cur = readIndexAt(raf, j);
+                    cur.read(f, j);
                     if (comp.compare(cur, min) < 0) {
                         minIdx = j;
-                        min = cur;
+                        IndexEntry t = min; min = cur; cur = t;
                     }
                 }
-                if (minIdx != i) swapIndexAt(raf, i, minIdx);
+                if (minIdx != i) f.swap(i, minIdx);
             }
         }
     }
 
-    private static void rewriteCsvFromIndex(File originalCsv, IndexInfo index) throws IOException {
-        File out = File.createTempFile("sortx_out_", ".csv");
+    private static void rewriteCsvFromIndex(File originalCsv, IndexInfo index, ProgressListener progress) throws IOException {
+        File out = SpillDirectories.createTempFile("sortx_out_", ".csv", originalCsv.length());
 
         try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(out), 128 * 1024)) {
             writeHeader(originalCsv, bos, index.headerLength, index.newline);
 
-            long n = indexCount(index.idxFile);
-            try (RandomAccessFile rafIdx = new RandomAccessFile(index.idxFile, "r");
+            try (MappedRecordFile idx = mapIndex(index.idxFile, false);
                  RandomAccessFile rafCsv = new RandomAccessFile(originalCsv, "r")) {
 
+                long n = idx.count();
                 byte[] lineBuf = new byte[Math.min(MAX_LINE_BYTES, 1 << 20)];
                 for (long i = 0; i < n; i++) {
-                    rafIdx.seek(i * INDEX_REC_SIZE);
-                    long offset = rafIdx.readLong();
-                    int length = rafIdx.readInt();
+                    if ((i & PROGRESS_MASK) == 0) report(progress, "Gravando CSV ordenado", (double) i / n);
+                    long offset = idx.getLong(i, 0);
+                    int length = idx.getInt(i, 8);
 
                     if (length > MAX_LINE_BYTES) throw new IOException("Linha excede MAX_LINE_BYTES: " + length);
                     if (lineBuf.length < length) lineBuf = new byte[length];
@@ -427,6 +590,9 @@ public class InPlaceCsvSorter {
                     bos.write(index.newline.getBytes(CS));
                 }
             }
+        } catch (IOException | RuntimeException e) {
+            try { out.delete(); } catch (Exception ignored) {}
+            throw e;
         }
 
         try {
@@ -439,6 +605,12 @@ public class InPlaceCsvSorter {
         }
     }
 
+    // Ponto de progresso; também para aqui se a thread foi interrompida
+    private static void report(ProgressListener progress, String phase, double fraction) {
+        Cancellation.checkpoint();
+        progress.update(phase, fraction);
+    }
+
     private static void writeHeader(File csv, OutputStream out, int headerLength, String newline) throws IOException {
         try (RandomAccessFile raf = new RandomAccessFile(csv, "r")) {
             byte[] hdr = new byte[headerLength];
@@ -450,180 +622,233 @@ public class InPlaceCsvSorter {
     }
 
     // MODO 2 RUNS (chunks) external merge sort genérico por runs (usa pouca RAM)
+    // Cada linha é lida como bytes brutos, recebe uma chave binária uma única vez (na ordenação do
+    // bloco) e vai para o run como [chave][linha]; o merge compara chaves e copia as linhas originais.
 
     private static void externalMergeByRuns(File file,
                                             RuleSet rules,
                                             String algorithmName,
                                             Locale locale,
-                                            SortStrategyRegistry sortRegistry) throws Exception {
-        List<String> headers = readHeaders(file);
-
-        Comparator<DataRecord> comparator = ComparatorFactory.build(rules, locale);
-        @SuppressWarnings("unchecked")
-        SortStrategy<Object> strategy = sortRegistry.byName(algorithmName);
-
-        List<File> runs = new ArrayList<>();
-
-        try (FileReader reader = new FileReader(file, CS);
-             CSVParser parser = CSVFormat.DEFAULT
-                     .builder()
-                     .setHeader()
-                     .setSkipHeaderRecord(true)
-                     .setIgnoreSurroundingSpaces(true)
-                     .setTrim(true)
-                     .build()
-                     .parse(reader)) {
-
-            List<DataRecord> buffer = new ArrayList<>(Math.min(MAX_ROWS_IN_MEMORY, 10000));
-            for (CSVRecord rec : parser) {
-                DataRecord dr = new DataRecord();
-                for (String h : headers) dr.put(h, rec.get(h));
-                buffer.add(dr);
-                if (buffer.size() >= MAX_ROWS_IN_MEMORY) {
-                    runs.add(writeSortedRun(headers, buffer, comparator, strategy));
-                    buffer.clear();
+                                            SortStrategyRegistry sortRegistry,
+                                            ProgressListener progress) throws Exception {
+        SortStrategy<RunRecord> strategy = sortRegistry.byName(algorithmName);
+
+        List<File> runs;
+        byte[] header;
+        String newline;
+
+        try (CsvRecordReader reader = new CsvRecordReader(new FileInputStream(file), RUN_READ_BUFFER)) {
+            header = reader.next();
+            if (header == null) return;
+            newline = reader.newline();
+            LazyDataRecord.Schema schema = new LazyDataRecord.Schema(Arrays.asList(parseHeader(new String(header, CS))));
+
+            if (RUN_REPLACEMENT) {
+                runs = replacementSelectionRuns(reader, new SortKeyEncoder(rules, locale), schema, file.length(), progress);
+            } else {
+                // Leitura nesta thread; ordenação e escrita dos runs em pools separados (pipeline)
+                try (RunPipeline<List<RunRecord>> pipeline = new RunPipeline<>(
+                        RUN_SORT_THREADS, RUN_WRITER_THREADS, RUN_CHUNKS_IN_FLIGHT,
+                        chunk -> sortRun(chunk, new SortKeyEncoder(rules, locale), schema, strategy),
+                        InPlaceCsvSorter::writeRun)) {
+
+                    // Blocos medidos em bytes: o orçamento se divide entre os blocos em voo e o que está sendo lido
+                    long chunkBudget = Math.max(RUN_MIN_CHUNK_BYTES, RUN_MEMORY_BYTES / (RUN_CHUNKS_IN_FLIGHT + 1));
+                    MemoryBudget.PressureProbe pressure = new MemoryBudget.PressureProbe();
+                    List<RunRecord> buffer = new ArrayList<>(Math.min(MAX_ROWS_IN_MEMORY, 10000));
+                    long bufferBytes = 0, readBytes = 0, rows = 0;
+                    for (byte[] line = reader.next(); line != null; line = reader.next()) {
+                        if (line.length == 0) continue;
+                        readBytes += line.length + 1;
+                        if ((++rows & PROGRESS_MASK) == 0) report(progress, "Gerando runs", (double) readBytes / file.length());
+                        RunRecord r = new RunRecord(null, line);
+                        buffer.add(r);
+                        // sortRun cria a cópia com chave (estimada pelo tamanho da linha) antes de soltar o bloco
+                        bufferBytes += r.retainedBytes() + 64L + line.length;
+                        boolean flush = buffer.size() >= MAX_ROWS_IN_MEMORY || bufferBytes >= chunkBudget;
+                        if (!flush && buffer.size() % PRESSURE_CHECK_ROWS == 0 && pressure.fired()) {
+                            // GC não está liberando o suficiente: grava o bloco já e reduz os próximos
+                            chunkBudget = Math.max(RUN_MIN_CHUNK_BYTES, chunkBudget / 2);
+                            flush = true;
+                        }
+                        if (flush) {
+                            pipeline.submit(buffer);
+                            buffer = new ArrayList<>(Math.min(MAX_ROWS_IN_MEMORY, 10000));
+                            bufferBytes = 0;
+                        }
+                    }
+                    if (!buffer.isEmpty()) {
+                        pipeline.submit(buffer);
+                    }
+                    runs = pipeline.finish();
                 }
             }
-            if (!buffer.isEmpty()) {
-                runs.add(writeSortedRun(headers, buffer, comparator, strategy));
-                buffer.clear();
-            }
         }
 
-        if (runs.isEmpty()) {
-            writeBackReplacing(file, headers, Collections.emptyList());
-            return;
+        File merged = null;
+        try {
+            merged = mergeRuns(header, newline, runs, file.length(), progress);
+            replaceFileKeepingName(file, merged);
+        } finally {
+            // Também em falha ou cancelamento: o original fica como estava e nenhum temporário sobra
+            if (merged != null) { try { merged.delete(); } catch (Exception ignored) {} }
+            for (File run : runs) { try { run.delete(); } catch (Exception ignored) { } }
         }
+    }
 
-        if (runs.size() == 1) {
-            replaceFileKeepingName(file, runs.get(0));
-            try { runs.get(0).delete(); } catch (Exception ignored) {}
-            return;
+    private static List<RunRecord> sortRun(List<RunRecord> lines,
+                                           SortKeyEncoder encoder,
+                                           LazyDataRecord.Schema schema,
+                                           SortStrategy<RunRecord> strategy) {
+        SortStrategyRegistry.checkQuadratic(strategy, lines.size());
+        int[] positions = encoder.positions(schema.headers());
+        RunRecord[] keyed = new RunRecord[lines.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            byte[] line = lines.get(i).line();
+            keyed[i] = new RunRecord(encoder.encode(new LazyDataRecord(schema, line), positions), line);
         }
-
-        File merged = mergeRuns(headers, runs, comparator);
-
-        replaceFileKeepingName(file, merged);
-
-        try { merged.delete(); } catch (Exception ignored) {}
-        for (File run : runs) { try { run.delete(); } catch (Exception ignored) { } }
+        strategy.sort(keyed, 0, keyed.length, RunRecord.ORDER);
+        return Arrays.asList(keyed);
     }
 
-    private static List<String> readHeaders(File file) throws IOException {
-        try (FileReader reader = new FileReader(file, CS);
-             CSVParser parser = CSVFormat.DEFAULT
-                     .builder()
-                     .setHeader()
-                     .setSkipHeaderRecord(true)
-                     .setIgnoreSurroundingSpaces(true)
-                     .setTrim(true)
-                     .build()
-                     .parse(reader)) {
-            return new ArrayList<>(parser.getHeaderMap().keySet());
+    private static File writeRun(List<RunRecord> rows) throws IOException {
+        long bytes = 0;
+        for (RunRecord r : rows) bytes += 8L + r.key().length + r.line().length;
+        File runFile = SpillDirectories.createTempFile("sortx_run_", ".bin", bytes);
+        try (RunFile.Writer writer = new RunFile.Writer(runFile)) {
+            for (RunRecord r : rows) writer.write(r);
+        } catch (IOException | RuntimeException e) {
+            // O run ainda não foi entregue ao pipeline: ninguém mais o apagaria
+            try { runFile.delete(); } catch (Exception ignored) {}
+            throw e;
         }
+        return runFile;
     }
 
-    private static File writeSortedRun(List<String> headers,
-                                       List<DataRecord> rows,
-                                       Comparator<DataRecord> comparator,
-                                       SortStrategy<Object> strategy) throws IOException {
-        strategy.sort((List)(rows), (Comparator)comparator);
-
-        File runFile = File.createTempFile("sortx_run_", ".csv");
-        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(runFile), CS));
-             CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(headers.toArray(new String[0])).build())) {
-            for (DataRecord r : rows) {
-                List<String> values = new ArrayList<>(headers.size());
-                for (String h : headers) {
-                    Object v = r.asMap().get(h);
-                    values.add(v == null ? "" : String.valueOf(v));
+    // Runs por seleção com substituição: chaves calculadas na thread de leitura, heap limitado pelo orçamento
+    private static List<File> replacementSelectionRuns(CsvRecordReader reader,
+                                                       SortKeyEncoder encoder,
+                                                       LazyDataRecord.Schema schema,
+                                                       long inputBytes,
+                                                       ProgressListener progress) throws IOException {
+        int[] positions = encoder.positions(schema.headers());
+        // Runs têm em média ~2× o heap, nunca mais que a entrada
+        long expectedRun = Math.min(inputBytes, 2 * RUN_MEMORY_BYTES);
+        ReplacementSelection selection = new ReplacementSelection(MAX_ROWS_IN_MEMORY, RUN_MEMORY_BYTES,
+                () -> SpillDirectories.createTempFile("sortx_run_", ".bin", expectedRun));
+        MemoryBudget.PressureProbe pressure = new MemoryBudget.PressureProbe();
+        long rows = 0, readBytes = 0;
+        try {
+            for (byte[] line = reader.next(); line != null; line = reader.next()) {
+                if (line.length == 0) continue;
+                readBytes += line.length + 1;
+                if ((++rows & PROGRESS_MASK) == 0) report(progress, "Gerando runs", (double) readBytes / inputBytes);
+                if (rows % PRESSURE_CHECK_ROWS == 0 && pressure.fired()) {
+                    selection.setMaxBytes(Math.max(RUN_MIN_CHUNK_BYTES, selection.bytes() / 2));
                 }
-                printer.printRecord(values);
+                byte[] key = encoder.encode(new LazyDataRecord(schema, line), positions);
+                selection.add(new RunRecord(key, line));
             }
+            return selection.finish();
+        } catch (IOException | RuntimeException e) {
+            selection.discard();
+            throw e;
         }
-        return runFile;
     }
 
-    private static File mergeRuns(List<String> headers, List<File> runs, Comparator<DataRecord> comparator) throws IOException {
-        class PQNode {
-            final int runIndex;
-            final DataRecord record;
-            PQNode(int runIndex, DataRecord record) { this.runIndex = runIndex; this.record = record; }
-        }
-        List<CSVParser> parsers = new ArrayList<>();
-        List<Iterator<CSVRecord>> iters = new ArrayList<>();
+    @FunctionalInterface
+    private interface RecordSink {
+        void accept(RunRecord r) throws IOException;
+    }
+
+    /**
+     * Merge com fan-in limitado: enquanto houver mais runs que {@code sortx.mergeFanIn}, grupos
+     * consecutivos são fundidos em runs intermediários; a última passada gera o CSV final. Os
+     * buffers dos leitores saem do orçamento de heap ({@link #mergeReadBuffer}), que também pode
+     * reduzir o fan-in.
+     */
+    private static File mergeRuns(byte[] header, String newline, List<File> runs, long outputBytes,
+                                  ProgressListener progress) throws IOException {
+        int fanIn = mergeFanIn();
+        List<File> level = runs;
+        List<File> temps = new ArrayList<>(); // intermediários e saída: apagados se o merge não terminar
         try {
-            for (File run : runs) {
-                FileReader fr = new FileReader(run, CS);
-                CSVParser parser = CSVFormat.DEFAULT
-                        .builder()
-                        .setHeader()
-                        .setSkipHeaderRecord(true)
-                        .setIgnoreSurroundingSpaces(true)
-                        .setTrim(true)
-                        .build()
-                        .parse(fr);
-                parsers.add(parser);
-                iters.add(parser.iterator());
-            }
-            PriorityQueue<PQNode> pq = new PriorityQueue<>((a, b) -> comparator.compare(a.record, b.record));
-            for (int i = 0; i < iters.size(); i++) {
-                Iterator<CSVRecord> it = iters.get(i);
-                if (it.hasNext()) {
-                    CSVRecord rec = it.next();
-                    DataRecord dr = new DataRecord();
-                    for (String h : headers) dr.put(h, rec.get(h));
-                    pq.add(new PQNode(i, dr));
+            while (level.size() > fanIn) {
+                report(progress, "Intercalando runs (" + level.size() + " restantes)", -1);
+                List<File> next = new ArrayList<>();
+                for (int i = 0; i < level.size(); i += fanIn) {
+                    List<File> group = level.subList(i, Math.min(level.size(), i + fanIn));
+                    if (group.size() == 1) { next.add(group.get(0)); continue; }
+                    long bytes = 0;
+                    for (File f : group) bytes += f.length();
+                    File out = SpillDirectories.createTempFile("sortx_merge_", ".bin", bytes);
+                    temps.add(out);
+                    try (RunFile.Writer writer = new RunFile.Writer(out)) {
+                        mergeGroup(group, writer::write);
+                    }
+                    for (File f : group) { try { f.delete(); } catch (Exception ignored) { } }
+                    next.add(out);
                 }
+                level = next;
             }
-            File out = File.createTempFile("sortx_merged_", ".csv");
-            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(out), CS));
-                 CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(headers.toArray(new String[0])).build())) {
-                while (!pq.isEmpty()) {
-                    PQNode node = pq.poll();
-                    List<String> values = new ArrayList<>(headers.size());
-                    for (String h : headers) {
-                        Object v = node.record.asMap().get(h);
-                        values.add(v == null ? "" : String.valueOf(v));
-                    }
-                    printer.printRecord(values);
-                    Iterator<CSVRecord> it = iters.get(node.runIndex);
-                    if (it.hasNext()) {
-                        CSVRecord rec = it.next();
-                        DataRecord dr = new DataRecord();
-                        for (String h : headers) dr.put(h, rec.get(h));
-                        pq.add(new PQNode(node.runIndex, dr));
+
+            byte[] nl = newline.getBytes(CS);
+            File out = SpillDirectories.createTempFile("sortx_merged_", ".csv", outputBytes);
+            temps.add(out);
+            long[] written = { 0, 0 };
+            try (OutputStream os = AsyncStreams.doubleBuffered(new FileOutputStream(out), RUN_READ_BUFFER)) {
+                os.write(header);
+                os.write(nl);
+                mergeGroup(level, r -> {
+                    os.write(r.line());
+                    os.write(nl);
+                    written[0] += r.line().length + nl.length;
+                    if ((++written[1] & PROGRESS_MASK) == 0) {
+                        report(progress, "Intercalando runs", (double) written[0] / outputBytes);
                     }
-                }
+                });
             }
-            return out;
-        } finally {
-            for (CSVParser p : parsers) {
-                try { p.close(); } catch (Exception ignored) {}
+            if (level != runs) {
+                for (File f : level) { try { f.delete(); } catch (Exception ignored) { } }
             }
+            return out;
+        } catch (IOException | RuntimeException e) {
+            for (File f : temps) { try { f.delete(); } catch (Exception ignored) { } }
+            throw e;
         }
     }
 
-    private static void writeBackReplacing(File file, List<String> headers, List<DataRecord> rows) throws IOException {
-        File temp = File.createTempFile("sortx_small_", ".csv");
-        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), CS));
-             CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(headers.toArray(new String[0])).build())) {
-            for (DataRecord r : rows) {
-                List<String> values = new ArrayList<>(headers.size());
-                for (String h : headers) {
-                    Object v = r.asMap().get(h);
-                    values.add(v == null ? "" : String.valueOf(v));
-                }
-                printer.printRecord(values);
-            }
-        }
+    // Heap do merge para os leitores: o orçamento menos os dois buffers da saída
+    private static long mergeReadMemory() {
+        return Math.max(0, RUN_MEMORY_BYTES - 2L * RUN_READ_BUFFER);
+    }
+
+    // Maior fan-in em que cada leitor ainda tem seus dois buffers de MERGE_MIN_READ_BUFFER
+    private static int mergeFanIn() {
+        return (int) Math.max(2, Math.min(MERGE_FAN_IN, mergeReadMemory() / (2L * MERGE_MIN_READ_BUFFER)));
+    }
+
+    // Buffer de cada leitor de um grupo de n runs: os dois buffers de cada um dividem o orçamento
+    private static int mergeReadBuffer(int n) {
+        long share = mergeReadMemory() / (2L * n);
+        return (int) Math.max(MERGE_MIN_READ_BUFFER, Math.min(MERGE_READ_BUFFER, share));
+    }
+
+    private static void mergeGroup(List<File> group, RecordSink sink) throws IOException {
+        List<RunFile.Reader> readers = new ArrayList<>(group.size());
+        int buffer = mergeReadBuffer(group.size());
         try {
-            Files.move(temp.toPath(), file.toPath(),
-                    StandardCopyOption.REPLACE_EXISTING,
-                    StandardCopyOption.ATOMIC_MOVE);
-        } catch (Exception atomicFail) {
-            Files.move(temp.toPath(), file.toPath(),
-                    StandardCopyOption.REPLACE_EXISTING);
+            for (File run : group) readers.add(new RunFile.Reader(run, buffer));
+            LoserTree tree = new LoserTree(readers.stream().<LoserTree.Source>map(r -> r::next).toList());
+            long merged = 0;
+            for (RunRecord r = tree.poll(); r != null; r = tree.poll()) {
+                if ((++merged & PROGRESS_MASK) == 0) Cancellation.checkpoint();
+                sink.accept(r);
+            }
+        } finally {
+            for (RunFile.Reader r : readers) {
+                try { r.close(); } catch (Exception ignored) {}
+            }
         }
     }
 
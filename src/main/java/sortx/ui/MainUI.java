@@ -1,5 +1,9 @@
 package sortx.ui;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -8,6 +12,7 @@ import javafx.scene.chart.PieChart;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import sortx.core.data.DataRecord;
@@ -18,11 +23,16 @@ import sortx.core.rules.RuleSet;
 import sortx.core.sort.SortStrategy;
 import sortx.core.sort.SortStrategyRegistry;
 import sortx.core.stats.StatsService;
+import sortx.core.service.Job;
+import sortx.core.service.JobService;
 import sortx.core.service.SortingService;
 
 import java.io.File;
 import java.text.Normalizer;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 @Lazy
 @Component
@@ -31,6 +41,7 @@ public class MainUI {
     private final SortStrategyRegistry sortRegistry;
     private final SortingService sortingService;
     private final StatsService statsService;
+    private final JobService jobService;
 
     private final BorderPane root = new BorderPane();
 
@@ -39,6 +50,9 @@ public class MainUI {
     private final Button importBtn = new Button("Importar CSV...");
     private final ComboBox<String> algoCombo = new ComboBox<>();
     private final Button sortBtn = new Button("Ordenar");
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label phaseLabel = new Label();
+    private final Button cancelBtn = new Button("Cancelar");
 
     private final RadioButton modeInMemory = new RadioButton("Na memória");
     private final RadioButton modeInPlace = new RadioButton("No arquivo (in-place)");
@@ -71,12 +85,15 @@ public class MainUI {
     private DataSet currentData = new DataSet();
     private File currentFile;
     private ProblemType currentProblem = ProblemType.SORTING;
+    private Job<?> currentJob;
 
-    public MainUI(ParserRegistry parserRegistry, SortStrategyRegistry sortRegistry, SortingService sortingService, StatsService statsService) {
+    public MainUI(ParserRegistry parserRegistry, SortStrategyRegistry sortRegistry, SortingService sortingService,
+                  StatsService statsService, JobService jobService) {
         this.parserRegistry = parserRegistry;
         this.sortRegistry = sortRegistry;
         this.sortingService = sortingService;
         this.statsService = statsService;
+        this.jobService = jobService;
         this.ruleEditor = new RuleEditorPane(ruleSet);
         this.chartsPane = new ChartsPane(statsService);
         build();
@@ -97,6 +114,10 @@ public class MainUI {
 
         importBtn.setOnAction(e -> onImport());
         sortBtn.setOnAction(e -> onExecute());
+        cancelBtn.setOnAction(e -> { if (currentJob != null) currentJob.cancel(); });
+        progressBar.setPrefWidth(140);
+        progressBar.setVisible(false);
+        cancelBtn.setVisible(false);
 
         modeInMemory.setToggleGroup(modeGroup);
         modeInPlace.setToggleGroup(modeGroup);
@@ -118,7 +139,7 @@ public class MainUI {
                 new Separator(),
                 new Label("Modo:"), modeInMemory, modeInPlace,
                 new Label("Externo:"), externalModeCombo,
-                spacer, sortBtn
+                spacer, phaseLabel, progressBar, cancelBtn, sortBtn
         );
 
         root.setTop(top);
@@ -256,8 +277,11 @@ public class MainUI {
             showAlert(Alert.AlertType.ERROR, "Formato não suportado", "Nenhum parser encontrado para este arquivo.");
             return;
         }
-        try {
-            currentData = parser.parse(f);
+        runJob(jobService.<DataSet>submitIo("Importar " + f.getName(), job -> {
+            job.update("Lendo " + f.getName(), -1);
+            return parser.parse(f);
+        }), "Erro ao importar", data -> {
+            currentData = data;
             currentFile = f;
             buildTableColumns(currentData.immutableHeaders());
             populateTable(currentData.getRows());
@@ -276,9 +300,7 @@ public class MainUI {
             }
             updateTabsForProblemType();
             sortBtn.setDisable(false);
-        } catch (Exception ex) {
-            showAlert(Alert.AlertType.ERROR, "Erro ao importar", ex.getMessage());
-        }
+        });
     }
 
     private ProblemType detectProblemType(List<String> headers) {
@@ -338,38 +360,85 @@ public class MainUI {
             showAlert(Alert.AlertType.WARNING, "Sem regras", "Adicione ao menos uma regra de ordenação.");
             return;
         }
-        String algo = Optional.ofNullable(algoCombo.getValue()).orElse("QuickSort");
+        String algo = Optional.ofNullable(algoCombo.getValue()).orElse("Auto");
         boolean inPlace = modeGroup.getSelectedToggle() == modeInPlace;
+        // Cópia das regras: o editor continua livre enquanto o job roda
+        RuleSet rules = new RuleSet();
+        ruleSet.all().forEach(rules::add);
 
         if (inPlace) {
-            try {
-                InPlaceCsvSorter.ExternalMode extMode =
-                        externalModeCombo.getValue().startsWith("Índice")
-                                ? InPlaceCsvSorter.ExternalMode.INDEX
-                                : InPlaceCsvSorter.ExternalMode.RUNS;
-
-                InPlaceCsvSorter.sortFile(
-                        currentFile,
-                        ruleSet,
-                        algo,
-                        Locale.getDefault(),
-                        sortRegistry,
-                        extMode
-                );
-                DataParser parser = parserRegistry.findFor(currentFile.getName());
-                currentData = parser.parse(currentFile);
+            InPlaceCsvSorter.ExternalMode extMode =
+                    externalModeCombo.getValue().startsWith("Índice")
+                            ? InPlaceCsvSorter.ExternalMode.INDEX
+                            : InPlaceCsvSorter.ExternalMode.RUNS;
+            File file = currentFile;
+            DataParser parser = parserRegistry.findFor(file.getName());
+            runJob(jobService.<DataSet>submit("Ordenar " + file.getName(), job -> {
+                InPlaceCsvSorter.sortFile(file, rules, algo, Locale.getDefault(), sortRegistry, extMode, job);
+                job.update("Recarregando " + file.getName(), -1);
+                return parser.parse(file);
+            }), "Erro ao ordenar in-place", data -> {
+                currentData = data;
                 buildTableColumns(currentData.immutableHeaders());
                 populateTable(currentData.getRows());
-                chartsPane.refresh(currentData.getRows());
+                chartsPane.refresh(currentData);
                 ruleEditor.setSampleRows(currentData.getRows());
-            } catch (Exception ex) {
-                showAlert(Alert.AlertType.ERROR, "Erro ao ordenar in-place", ex.getMessage());
+            });
+        } else {
+            // O job só calcula a ordem; as linhas visíveis são reordenadas aqui, na thread da interface
+            DataSet data = currentData;
+            runJob(jobService.<int[]>submit("Ordenar em memória",
+                    job -> sortingService.argsort(data, rules, algo, Locale.getDefault(), job)),
+                    "Erro ao ordenar", order -> {
+                data.permute(order);
+                populateTable(data.getRows());
+                chartsPane.refresh(data);
+                ruleEditor.setSampleRows(data.getRows());
+            });
+        }
+    }
+
+    /**
+     * Acompanha um job na barra superior (fase, progresso e botão de cancelar) e, ao terminar,
+     * aplica o resultado na thread da interface; falhas viram alerta e cancelamento só é informado.
+     */
+    private <T> void runJob(Job<T> job, String errorTitle, Consumer<T> onSuccess) {
+        currentJob = job;
+        setBusy(true);
+        Timeline poll = new Timeline(new KeyFrame(Duration.millis(100), e -> {
+            double p = job.progress();
+            progressBar.setProgress(p < 0 ? ProgressBar.INDETERMINATE_PROGRESS : p);
+            phaseLabel.setText(job.phase());
+        }));
+        poll.setCycleCount(Animation.INDEFINITE);
+        poll.play();
+        job.future().whenComplete((result, err) -> Platform.runLater(() -> {
+            poll.stop();
+            currentJob = null;
+            setBusy(false);
+            Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+            if (cause == null) {
+                phaseLabel.setText("");
+                onSuccess.accept(result);
+            } else if (cause instanceof CancellationException) {
+                phaseLabel.setText("Cancelado");
+            } else {
+                phaseLabel.setText("");
+                showAlert(Alert.AlertType.ERROR, errorTitle, cause.getMessage());
             }
+        }));
+    }
+
+    private void setBusy(boolean busy) {
+        progressBar.setVisible(busy);
+        cancelBtn.setVisible(busy);
+        importBtn.setDisable(busy);
+        sortBtn.setDisable(busy || currentData == null || currentData.isEmpty());
+        if (busy) {
+            setMemoryControlsEnabled(false);
+            externalModeCombo.setDisable(true);
         } else {
-            sortingService.sort(currentData, ruleSet, algo, Locale.getDefault());
-            populateTable(currentData.getRows());
-            chartsPane.refresh(currentData.getRows());
-            ruleEditor.setSampleRows(currentData.getRows());
+            updateTabsForProblemType();
         }
     }
 
@@ -0,0 +1,166 @@
+package sortx.core.rules;
+
+import org.junit.jupiter.api.Test;
+import sortx.core.data.DataRecord;
+import sortx.core.data.DataSet;
+import sortx.core.data.LazyDataRecord;
+import sortx.core.data.column.BooleanColumn;
+import sortx.core.data.column.DateColumn;
+import sortx.core.data.column.DictionaryColumn;
+import sortx.core.data.column.NumberColumn;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * A ordem sem sinal das chaves de {@link SortKeyEncoder} deve coincidir, par a par, com a de
+ * {@link ComparatorFactory#build}: marcadores de nulo e de valor não interpretável, DESC, zeros
+ * escapados na chave de colação e postos de {@link DictionaryColumn}.
+ */
+class SortKeyEncoderTests {
+
+	private static final Locale LOCALE = Locale.forLanguageTag("pt-BR");
+	private static final int ROWS = 50;
+
+	private static final String[] HEADERS = { "num", "data", "flag", "texto", "misto" };
+	// num, data e flag só recebem valores que a coluna tipada aceita (nulos, formatos ou grafias mistas a
+	// promoveriam a texto); nulos e valores não interpretáveis em todos os tipos vêm de misto
+	private static final String[] NUMBERS = { "0", "1", "-1", "2.5", "-2.5", "10", "1000000", "0.001", "-0.001", "" };
+	private static final String[] DATES = { "2024-01-15", "2023-12-31", "1970-01-01", "1900-02-28", "2100-07-04", "" };
+	private static final String[] BOOLEANS = { "sim", "não", "" };
+	private static final String[] TEXTS = { "maçã", "Maçã", "MAÇÃ", "maca", "banana", "Banana", "b", "a b", "ab", "Ábaco", "abaco",
+			"z", "Zebra", "10", "9", "", " ", null };
+	private static final String[] MIXED = { "1", "-0", "-3.5", "3,5", "abc", "2024-01-15", "15/01/2024", "true", "N/A", "", " ",
+			"NaN", "sim", "não", "false", "y", "0", null };
+
+	@Test
+	void keysFollowComparatorOnEveryRule() {
+		String[][] raw = rows();
+		DataSet dataSet = dataSet(raw);
+		assertInstanceOf(NumberColumn.class, dataSet.column("num"));
+		assertInstanceOf(DateColumn.class, dataSet.column("data"));
+		assertInstanceOf(BooleanColumn.class, dataSet.column("flag"));
+		assertInstanceOf(DictionaryColumn.class, dataSet.column("texto"));
+		assertInstanceOf(DictionaryColumn.class, dataSet.column("misto"));
+
+		for (String column : HEADERS) {
+			for (ColumnType type : ColumnType.values()) {
+				for (SortOrder order : SortOrder.values()) {
+					for (boolean caseInsensitive : new boolean[] { false, true }) {
+						if (caseInsensitive && type != ColumnType.STRING) continue; // só a colação usa
+						RuleSet rules = new RuleSet();
+						rules.add(new SortRule(column, type, order, false, caseInsensitive));
+						check(rules, raw, dataSet);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void keysFollowComparatorOnSeveralRules() {
+		String[][] raw = rows();
+		DataSet dataSet = dataSet(raw);
+		RuleSet rules = new RuleSet();
+		rules.add(new SortRule("flag", ColumnType.BOOLEAN, SortOrder.DESC, false, false));
+		rules.add(new SortRule("texto", ColumnType.STRING, SortOrder.ASC, false, true));
+		rules.add(new SortRule("misto", ColumnType.NUMBER, SortOrder.DESC, false, false));
+		rules.add(new SortRule("data", ColumnType.DATE, SortOrder.ASC, false, false));
+		rules.add(new SortRule("texto", ColumnType.STRING, SortOrder.DESC, false, false));
+		rules.add(new SortRule("num", ColumnType.NUMBER, SortOrder.ASC, false, false));
+		check(rules, raw, dataSet);
+	}
+
+	// Compara o sinal da ordem das chaves com o do comparador em cada caminho de codificação
+	private static void check(RuleSet rules, String[][] raw, DataSet dataSet) {
+		Comparator<DataRecord> comparator = ComparatorFactory.build(rules, LOCALE);
+		SortKeyEncoder encoder = new SortKeyEncoder(rules, LOCALE);
+		int[] positions = encoder.positions(Arrays.asList(HEADERS));
+		LazyDataRecord.Schema schema = new LazyDataRecord.Schema(Arrays.asList(HEADERS));
+
+		List<DataRecord> records = new ArrayList<>();
+		byte[][] recordKeys = new byte[raw.length][];
+		byte[][] fieldKeys = new byte[raw.length][];
+		byte[][] lazyKeys = new byte[raw.length][];
+		byte[][] columnKeys = new byte[raw.length][];
+		for (int r = 0; r < raw.length; r++) {
+			DataRecord record = new DataRecord();
+			for (int c = 0; c < HEADERS.length; c++) record.put(HEADERS[c], raw[r][c]);
+			records.add(record);
+			recordKeys[r] = encoder.encode(record);
+			fieldKeys[r] = encoder.encode(raw[r], positions);
+			columnKeys[r] = encoder.encode(dataSet, r);
+		}
+		List<DataRecord> csvRecords = new ArrayList<>();
+		for (int r = 0; r < raw.length; r++) {
+			LazyDataRecord lazy = new LazyDataRecord(schema, csvLine(raw[r]).getBytes(StandardCharsets.UTF_8));
+			csvRecords.add(lazy);
+			lazyKeys[r] = encoder.encode(lazy, positions);
+		}
+
+		for (int a = 0; a < raw.length; a++) {
+			for (int b = 0; b < raw.length; b++) {
+				int x = a, y = b;
+				Supplier<String> where = () -> describe(rules) + " linhas " + Arrays.toString(raw[x]) + " x " + Arrays.toString(raw[y]);
+				int expected = Integer.signum(comparator.compare(records.get(a), records.get(b)));
+				assertEquals(expected, Integer.signum(Arrays.compareUnsigned(recordKeys[a], recordKeys[b])), () -> "DataRecord " + where.get());
+				assertEquals(expected, Integer.signum(Arrays.compareUnsigned(fieldKeys[a], fieldKeys[b])), () -> "campos " + where.get());
+				assertEquals(Integer.signum(comparator.compare(csvRecords.get(a), csvRecords.get(b))),
+						Integer.signum(Arrays.compareUnsigned(lazyKeys[a], lazyKeys[b])), () -> "LazyDataRecord " + where.get());
+				assertEquals(Integer.signum(comparator.compare(dataSet.getRows().get(a), dataSet.getRows().get(b))),
+						Integer.signum(Arrays.compareUnsigned(columnKeys[a], columnKeys[b])), () -> "DataSet " + where.get());
+			}
+		}
+	}
+
+	private static String[][] rows() {
+		Random random = new Random(25);
+		String[][] raw = new String[ROWS][];
+		for (int r = 0; r < ROWS; r++) {
+			raw[r] = new String[] { pick(random, NUMBERS), pick(random, DATES), pick(random, BOOLEANS),
+					pick(random, TEXTS), pick(random, MIXED) };
+		}
+		return raw;
+	}
+
+	private static DataSet dataSet(String[][] raw) {
+		DataSet dataSet = new DataSet();
+		for (String h : HEADERS) dataSet.addHeader(h);
+		for (String[] row : raw) dataSet.addRow(row);
+		return dataSet;
+	}
+
+	// Linha CSV em que null vira campo ausente no fim (só possível como último campo) ou vazio
+	private static String csvLine(String[] values) {
+		int n = values.length;
+		while (n > 0 && values[n - 1] == null) n--;
+		StringBuilder line = new StringBuilder();
+		for (int c = 0; c < n; c++) {
+			if (c > 0) line.append(',');
+			if (values[c] != null) line.append(values[c]);
+		}
+		return line.toString();
+	}
+
+	private static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static String describe(RuleSet rules) {
+		StringBuilder s = new StringBuilder();
+		for (SortRule r : rules.all()) {
+			s.append(r.getColumn()).append(':').append(r.getType()).append(':').append(r.getOrder())
+					.append(r.isCaseInsensitive() ? ":ci " : " ");
+		}
+		return s.toString();
+	}
+}
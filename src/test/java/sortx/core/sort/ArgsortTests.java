@@ -0,0 +1,90 @@
+package sortx.core.sort;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * {@link SortStrategy#argsort(long[])} de cada estratégia do registro deve devolver exatamente a
+ * permutação de um sort estável ({@link Arrays#sort(Object[], java.util.Comparator)}).
+ */
+class ArgsortTests {
+
+	private static final int SIZE = 50_000;          // passa do corte sequencial do ParallelMergeSort
+	private static final int QUADRATIC_SIZE = 2_000;
+	private static final int[] SMALL_SIZES = { 0, 1, 2, 3, 15, 16, 17, 31, 32, 33, 64, 129, 1000 };
+
+	@TestFactory
+	List<DynamicTest> argsortMatchesStableSort() {
+		List<DynamicTest> tests = new ArrayList<>();
+		for (SortStrategy<?> strategy : new SortStrategyRegistry().all()) {
+			int size = strategy.quadratic() ? QUADRATIC_SIZE : SIZE;
+			for (Pattern p : patterns()) {
+				tests.add(DynamicTest.dynamicTest(strategy.name() + " " + p.name + " n=" + size,
+						() -> check(strategy, p.keys.apply(size))));
+				for (int n : SMALL_SIZES) {
+					tests.add(DynamicTest.dynamicTest(strategy.name() + " " + p.name + " n=" + n,
+							() -> check(strategy, p.keys.apply(n))));
+				}
+			}
+		}
+		return tests;
+	}
+
+	private static void check(SortStrategy<?> strategy, long[] keys) {
+		long[] copy = keys.clone();
+		int[] order = strategy.argsort(keys);
+		assertArrayEquals(copy, keys, "argsort não pode alterar as chaves");
+		assertArrayEquals(stableOrder(keys), order, strategy.name());
+	}
+
+	private static int[] stableOrder(long[] keys) {
+		Integer[] ix = new Integer[keys.length];
+		for (int i = 0; i < ix.length; i++) ix[i] = i;
+		Arrays.sort(ix, (a, b) -> Long.compare(keys[a], keys[b]));
+		return Arrays.stream(ix).mapToInt(Integer::intValue).toArray();
+	}
+
+	private record Pattern(String name, IntFunction<long[]> keys) { }
+
+	private static List<Pattern> patterns() {
+		return List.of(
+				new Pattern("aleatório", n -> {
+					Random r = new Random(n);
+					long[] k = new long[n];
+					for (int i = 0; i < n; i++) k[i] = r.nextLong();
+					if (n > 2) { k[0] = Long.MIN_VALUE; k[n - 1] = Long.MAX_VALUE; k[n / 2] = 0; }
+					return k;
+				}),
+				new Pattern("muitos repetidos", n -> {
+					Random r = new Random(n + 1);
+					long[] k = new long[n];
+					for (int i = 0; i < n; i++) k[i] = r.nextInt(8) - 4;
+					return k;
+				}),
+				new Pattern("todos iguais", n -> new long[n]),
+				new Pattern("ordenado", n -> {
+					long[] k = new long[n];
+					for (int i = 0; i < n; i++) k[i] = i / 3;
+					return k;
+				}),
+				new Pattern("invertido", n -> {
+					long[] k = new long[n];
+					for (int i = 0; i < n; i++) k[i] = (n - i) / 3;
+					return k;
+				}),
+				new Pattern("serrilhado", n -> {
+					Random r = new Random(n + 2);
+					long[] k = new long[n];
+					for (int i = 0; i < n; i++) k[i] = i % 97 + (r.nextInt(50) == 0 ? r.nextInt(100) : 0);
+					return k;
+				}));
+	}
+}